@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier;
+import org.gradle.internal.component.external.descriptor.DefaultExclude;
+import org.gradle.internal.component.model.ExcludeMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Evaluates and combines exclude rules shaped like those found in large platforms and BOMs:
+ * many module exclusions, a smaller number of group exclusions and a few module name exclusions.
+ */
+@Fork(2)
+@Warmup(iterations = 10, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+@State(Scope.Benchmark)
+public class ModuleExclusionsBenchmark {
+    private static final int RULE_SETS = 64;
+    private static final int CANDIDATES = 1024;
+
+    private final Random random = new Random(42);
+
+    private ModuleExclusions moduleExclusions;
+    private ModuleExclusion[] exclusions;
+    private ModuleIdentifier[] candidates;
+    private int i;
+
+    @Setup(Level.Iteration)
+    public void createExclusions() {
+        moduleExclusions = new ModuleExclusions(new DefaultImmutableModuleIdentifierFactory());
+        exclusions = new ModuleExclusion[RULE_SETS];
+        for (int set = 0; set < RULE_SETS; set++) {
+            ImmutableList.Builder<ExcludeMetadata> rules = ImmutableList.builder();
+            for (int rule = 0; rule < 40; rule++) {
+                rules.add(exclude("org.group" + random.nextInt(20), "module" + random.nextInt(200)));
+            }
+            for (int rule = 0; rule < 8; rule++) {
+                rules.add(exclude("org.group" + random.nextInt(40), "*"));
+            }
+            rules.add(exclude("*", "commons-logging"));
+            rules.add(exclude("*", "module" + random.nextInt(200)));
+            exclusions[set] = moduleExclusions.excludeAny(rules.build());
+        }
+        candidates = new ModuleIdentifier[CANDIDATES];
+        for (int candidate = 0; candidate < CANDIDATES; candidate++) {
+            candidates[candidate] = DefaultModuleIdentifier.newId("org.group" + random.nextInt(60), "module" + random.nextInt(400));
+        }
+    }
+
+    @Benchmark
+    public void excludeModule(Blackhole bh) {
+        ModuleExclusion exclusion = exclusions[i++ % RULE_SETS];
+        for (ModuleIdentifier candidate : candidates) {
+            bh.consume(exclusion.excludeModule(candidate));
+        }
+    }
+
+    @Benchmark
+    public void excludesSameModulesAs(Blackhole bh) {
+        int index = i++;
+        bh.consume(exclusions[index % RULE_SETS].excludesSameModulesAs(exclusions[(index + 1) % RULE_SETS]));
+    }
+
+    @Benchmark
+    public void both(Blackhole bh) {
+        int index = i++;
+        bh.consume(moduleExclusions.both(exclusions[index % RULE_SETS], exclusions[(index * 7 + 3) % RULE_SETS]));
+    }
+
+    @Benchmark
+    public void either(Blackhole bh) {
+        int index = i++;
+        bh.consume(moduleExclusions.either(exclusions[index % RULE_SETS], exclusions[(index * 7 + 3) % RULE_SETS]));
+    }
+
+    private static ExcludeMetadata exclude(String group, String module) {
+        return new DefaultExclude(DefaultModuleIdentifier.newId(group, module));
+    }
+}
@@ -19,26 +19,33 @@ import com.google.common.collect.Maps;
 import org.gradle.api.artifacts.ModuleIdentifier;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
 
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Interns module and module version identifiers. Concurrent requests for the same identifier always receive the same instance,
+ * so that equality checks between identifiers created by this factory are identity checks.
+ */
 public class DefaultImmutableModuleIdentifierFactory implements ImmutableModuleIdentifierFactory {
-    private final Map<String, Map<String, ModuleIdentifier>> groupIdToModules = Maps.newConcurrentMap();
-    private final Map<ModuleIdentifier, Map<String, ModuleVersionIdentifier>> idToVersions = Maps.newConcurrentMap();
+    private final ConcurrentMap<String, ConcurrentMap<String, ModuleIdentifier>> groupIdToModules = Maps.newConcurrentMap();
+    private final ConcurrentMap<ModuleIdentifier, ConcurrentMap<String, ModuleVersionIdentifier>> idToVersions = Maps.newConcurrentMap();
 
     @Override
     public ModuleIdentifier module(String group, String name) {
-        Map<String, ModuleIdentifier> byName = groupIdToModules.get(group);
+        ConcurrentMap<String, ModuleIdentifier> byName = groupIdToModules.get(group);
         if (byName == null) {
-            byName = groupIdToModules.get(group);
-            if (byName == null) {
-                byName = Maps.newConcurrentMap();
-                groupIdToModules.put(group, byName);
+            byName = Maps.newConcurrentMap();
+            ConcurrentMap<String, ModuleIdentifier> existing = groupIdToModules.putIfAbsent(group, byName);
+            if (existing != null) {
+                byName = existing;
             }
         }
         ModuleIdentifier moduleIdentifier = byName.get(name);
         if (moduleIdentifier == null) {
             moduleIdentifier = DefaultModuleIdentifier.newId(group, name);
-            byName.put(name, moduleIdentifier);
+            ModuleIdentifier existing = byName.putIfAbsent(name, moduleIdentifier);
+            if (existing != null) {
+                moduleIdentifier = existing;
+            }
         }
         return moduleIdentifier;
     }
@@ -51,18 +58,21 @@ public class DefaultImmutableModuleIdentifierFactory implements ImmutableModuleI
 
     @Override
     public ModuleVersionIdentifier moduleWithVersion(ModuleIdentifier mi, String version) {
-        Map<String, ModuleVersionIdentifier> byVersion = idToVersions.get(mi);
+        ConcurrentMap<String, ModuleVersionIdentifier> byVersion = idToVersions.get(mi);
         if (byVersion == null) {
-            byVersion = idToVersions.get(mi);
-            if (byVersion == null) {
-                byVersion = Maps.newConcurrentMap();
-                idToVersions.put(mi, byVersion);
+            byVersion = Maps.newConcurrentMap();
+            ConcurrentMap<String, ModuleVersionIdentifier> existing = idToVersions.putIfAbsent(mi, byVersion);
+            if (existing != null) {
+                byVersion = existing;
             }
         }
         ModuleVersionIdentifier identifier = byVersion.get(version);
         if (identifier == null) {
-            identifier =  DefaultModuleVersionIdentifier.newId(mi, version);
-            byVersion.put(version, identifier);
+            identifier = DefaultModuleVersionIdentifier.newId(mi, version);
+            ModuleVersionIdentifier existing = byVersion.putIfAbsent(version, identifier);
+            if (existing != null) {
+                identifier = existing;
+            }
         }
         return identifier;
     }
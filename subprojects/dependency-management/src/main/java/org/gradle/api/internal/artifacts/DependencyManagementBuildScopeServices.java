@@ -48,6 +48,7 @@ import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.Defaul
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.DefaultModuleArtifactsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.InMemoryModuleArtifactCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.InMemoryModuleArtifactsCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.CrossBuildModuleVersionListings;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.DefaultModuleVersionsCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.InMemoryModuleVersionsCache;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.LocalComponentMetadataBuilder;
@@ -59,6 +60,8 @@ import org.gradle.api.internal.artifacts.ivyservice.projectmodule.LocalComponent
 import org.gradle.api.internal.artifacts.ivyservice.projectmodule.LocalComponentRegistry;
 import org.gradle.api.internal.artifacts.ivyservice.projectmodule.ProjectDependencyResolver;
 import org.gradle.api.internal.artifacts.ivyservice.projectmodule.ProjectPublicationRegistry;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.ComponentMetadataPrefetcher;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.CrossBuildSelectedComponents;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.DefaultArtifactDependencyResolver;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.ModuleExclusions;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.AttributeContainerSerializer;
@@ -189,12 +192,15 @@ class DependencyManagementBuildScopeServices {
 
     ModuleRepositoryCacheProvider createModuleRepositoryCacheProvider(BuildCommencedTimeProvider timeProvider, ArtifactCacheLockingManager artifactCacheLockingManager, ImmutableModuleIdentifierFactory moduleIdentifierFactory,
                                                                       ArtifactCacheMetadata artifactCacheMetadata, AttributeContainerSerializer attributeContainerSerializer, MavenMutableModuleMetadataFactory mavenMetadataFactory, IvyMutableModuleMetadataFactory ivyMetadataFactory, SimpleMapInterner stringInterner,
-                                                                      ArtifactIdentifierFileStore artifactIdentifierFileStore) {
+                                                                      ArtifactIdentifierFileStore artifactIdentifierFileStore, CrossBuildModuleVersionListings crossBuildModuleVersionListings) {
+        DefaultModuleVersionsCache persistentModuleVersionsCache = new DefaultModuleVersionsCache(
+            timeProvider,
+            artifactCacheLockingManager,
+            moduleIdentifierFactory);
         ModuleRepositoryCaches caches = new ModuleRepositoryCaches(
-            new InMemoryModuleVersionsCache(timeProvider, new DefaultModuleVersionsCache(
-                timeProvider,
-                artifactCacheLockingManager,
-                moduleIdentifierFactory)),
+            CrossBuildModuleVersionListings.isEnabled()
+                ? new InMemoryModuleVersionsCache(timeProvider, persistentModuleVersionsCache, crossBuildModuleVersionListings)
+                : new InMemoryModuleVersionsCache(timeProvider, persistentModuleVersionsCache),
             new InMemoryModuleMetadataCache(timeProvider, new PersistentModuleMetadataCache(
                 timeProvider,
                 artifactCacheLockingManager,
@@ -322,7 +328,8 @@ class DependencyManagementBuildScopeServices {
                                                                 ImmutableAttributesFactory attributesFactory,
                                                                 VersionSelectorScheme versionSelectorScheme,
                                                                 VersionParser versionParser,
-                                                                ComponentMetadataSupplierRuleExecutor componentMetadataSupplierRuleExecutor) {
+                                                                ComponentMetadataSupplierRuleExecutor componentMetadataSupplierRuleExecutor,
+                                                                ComponentMetadataPrefetcher componentMetadataPrefetcher) {
         return new DefaultArtifactDependencyResolver(
             buildOperationExecutor,
             resolverFactories,
@@ -335,7 +342,12 @@ class DependencyManagementBuildScopeServices {
             attributesFactory,
             versionSelectorScheme,
             versionParser,
-            componentMetadataSupplierRuleExecutor);
+            componentMetadataSupplierRuleExecutor,
+            componentMetadataPrefetcher);
+    }
+
+    ComponentMetadataPrefetcher createComponentMetadataPrefetcher(CrossBuildSelectedComponents crossBuildSelectedComponents, BuildStateRegistry buildStateRegistry) {
+        return new ComponentMetadataPrefetcher(crossBuildSelectedComponents, buildStateRegistry);
     }
 
     ProjectPublicationRegistry createProjectPublicationRegistry() {
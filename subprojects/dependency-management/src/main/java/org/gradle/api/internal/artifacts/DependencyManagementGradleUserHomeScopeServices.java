@@ -20,6 +20,8 @@ import org.gradle.api.internal.artifacts.ivyservice.ArtifactCacheLockingManager;
 import org.gradle.api.internal.artifacts.ivyservice.ArtifactCacheMetadata;
 import org.gradle.api.internal.artifacts.ivyservice.DefaultArtifactCacheLockingManager;
 import org.gradle.api.internal.artifacts.ivyservice.DefaultArtifactCacheMetadata;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.CrossBuildModuleVersionListings;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.CrossBuildSelectedComponents;
 import org.gradle.api.internal.artifacts.transform.ImmutableCachingTransformationWorkspaceProvider;
 import org.gradle.api.internal.artifacts.transform.ImmutableTransformationWorkspaceProvider;
 import org.gradle.api.internal.cache.StringInterner;
@@ -45,6 +47,14 @@ public class DependencyManagementGradleUserHomeScopeServices {
         return new DefaultArtifactCacheLockingManager(cacheRepository, artifactCacheMetadata, fileAccessTimeJournal, usedGradleVersions);
     }
 
+    CrossBuildModuleVersionListings createCrossBuildModuleVersionListings() {
+        return new CrossBuildModuleVersionListings();
+    }
+
+    CrossBuildSelectedComponents createCrossBuildSelectedComponents() {
+        return new CrossBuildSelectedComponents();
+    }
+
     ExecutionHistoryCacheAccess createExecutionHistoryCacheAccess(CacheRepository cacheRepository, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
         return new DefaultExecutionHistoryCacheAccess(null, cacheRepository, inMemoryCacheDecoratorFactory);
     }
@@ -59,6 +59,7 @@ import org.gradle.util.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.math.BigInteger;
 import java.util.Map;
@@ -201,7 +202,15 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
                 result.setAuthoritative(cachedMetadata.getAgeMillis() == 0);
                 return;
             }
+            if (mustRefreshBeforeProcessing(moduleComponentIdentifier, requestMetaData.isChanging(), cachedMetadata)) {
+                LOGGER.debug("Cached meta-data for module is expired: will perform fresh resolve of '{}' in '{}'", moduleComponentIdentifier, delegate.getName());
+                return;
+            }
             ModuleComponentResolveMetadata metadata = getProcessedMetadata(metadataProcessor.getRulesHash(), cachedMetadata);
+            if (metadata == null) {
+                LOGGER.debug("Cached meta-data for module is no longer available: will perform fresh resolve of '{}' in '{}'", moduleComponentIdentifier, delegate.getName());
+                return;
+            }
             if (requestMetaData.isChanging() || metadata.isChanging()) {
                 if (cachePolicy.mustRefreshChangingModule(moduleComponentIdentifier, cachedMetadata.getModuleVersion(), cachedMetadata.getAgeMillis())) {
                     LOGGER.debug("Cached meta-data for changing module is expired: will perform fresh resolve of '{}' in '{}'", moduleComponentIdentifier, delegate.getName());
@@ -222,10 +231,29 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
             result.setAuthoritative(cachedMetadata.getAgeMillis() == 0);
         }
 
+        /**
+         * Determines whether the cached entry must be refreshed without decoding and processing its metadata. Component metadata rules
+         * may change whether a module is changing, so this only holds when the entry expires whether or not the module turns out to be changing.
+         */
+        private boolean mustRefreshBeforeProcessing(ModuleComponentIdentifier moduleComponentIdentifier, boolean requestedChanging, ModuleMetadataCache.CachedMetadata cachedMetadata) {
+            if (cachedMetadata.getProcessedMetadata(metadataProcessor.getRulesHash()) != null) {
+                return false;
+            }
+            if (!cachePolicy.mustRefreshChangingModule(moduleComponentIdentifier, cachedMetadata.getModuleVersion(), cachedMetadata.getAgeMillis())) {
+                return false;
+            }
+            return requestedChanging || cachePolicy.mustRefreshModule(moduleComponentIdentifier, cachedMetadata.getModuleVersion(), cachedMetadata.getAgeMillis());
+        }
+
+        @Nullable
         private ModuleComponentResolveMetadata getProcessedMetadata(int key, ModuleMetadataCache.CachedMetadata cachedMetadata) {
             ModuleComponentResolveMetadata metadata = cachedMetadata.getProcessedMetadata(key);
             if (metadata == null) {
-                metadata = metadataProcessor.processMetadata(cachedMetadata.getMetadata());
+                ModuleComponentResolveMetadata storedMetadata = cachedMetadata.getMetadata();
+                if (storedMetadata == null) {
+                    return null;
+                }
+                metadata = metadataProcessor.processMetadata(storedMetadata);
                 // Save the processed metadata for next time.
                 cachedMetadata.putProcessedMetadata(key, metadata);
             }
@@ -302,7 +330,13 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
                 }
                 return MetadataFetchingCost.CHEAP;
             }
+            if (mustRefreshBeforeProcessing(moduleComponentIdentifier, false, cachedMetadata)) {
+                return estimateCostViaRemoteAccess(moduleComponentIdentifier);
+            }
             ModuleComponentResolveMetadata metaData = getProcessedMetadata(metadataProcessor.getRulesHash(), cachedMetadata);
+            if (metaData == null) {
+                return estimateCostViaRemoteAccess(moduleComponentIdentifier);
+            }
             if (metaData.isChanging()) {
                 if (cachePolicy.mustRefreshChangingModule(moduleComponentIdentifier, cachedMetadata.getModuleVersion(), cachedMetadata.getAgeMillis())) {
                     return estimateCostViaRemoteAccess(moduleComponentIdentifier);
@@ -101,12 +101,16 @@ class DefaultVersionedComponentChooser implements VersionedComponentChooser {
                 continue;
             }
 
+            // Check the version based reject selector first, as it never requires metadata
+            if (isRejectedBySelector(candidateId, rejectedVersionSelector)) {
+                // Mark this version as rejected
+                result.rejectedBySelector(candidateId, rejectedVersionSelector);
+                continue;
+            }
+
             RejectedByAttributesVersion maybeRejectByAttributes = tryRejectByAttributes(candidateId, metadataProvider, consumerAttributes);
             if (maybeRejectByAttributes != null) {
                 result.doesNotMatchConsumerAttributes(maybeRejectByAttributes);
-            } else if (isRejectedBySelector(candidateId, rejectedVersionSelector)) {
-                // Mark this version as rejected
-                result.rejectedBySelector(candidateId, rejectedVersionSelector);
             } else {
                 RejectedByRuleVersion rejectedByRules = isRejectedByRule(candidateId, rules, metadataProvider);
                 if (rejectedByRules != null) {
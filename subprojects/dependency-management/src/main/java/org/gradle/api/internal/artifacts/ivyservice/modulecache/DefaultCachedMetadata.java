@@ -15,13 +15,17 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice.modulecache;
 
+import com.google.common.annotations.VisibleForTesting;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.ResolvedModuleVersion;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.DefaultResolvedModuleVersion;
+import org.gradle.internal.Factory;
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
 import org.gradle.internal.component.model.ModuleSource;
 import org.gradle.util.BuildCommencedTimeProvider;
 
 import javax.annotation.Nullable;
+import java.lang.ref.SoftReference;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,19 +33,37 @@ import java.util.concurrent.ConcurrentHashMap;
 class DefaultCachedMetadata implements ModuleMetadataCache.CachedMetadata {
     private final ModuleSource moduleSource;
     private final long ageMillis;
+    private final ResolvedModuleVersion moduleVersion;
     private final ModuleComponentResolveMetadata metadata;
+    private final Factory<ModuleComponentResolveMetadata> metadataLoader;
 
+    private volatile SoftReference<ModuleComponentResolveMetadata> loadedMetadata;
     private volatile Map<Integer, ModuleComponentResolveMetadata> processedMetadataByRules;
 
     DefaultCachedMetadata(ModuleMetadataCacheEntry entry, ModuleComponentResolveMetadata metadata, BuildCommencedTimeProvider timeProvider) {
+        this(entry, metadata == null ? null : metadata.getModuleVersionId(), metadata, null, timeProvider);
+    }
+
+    /**
+     * Creates cached metadata whose module metadata is only decoded when first requested. The decoded metadata is softly referenced,
+     * so that it can be reclaimed once the processed metadata has been derived from it, and is loaded again if it is requested later.
+     * The loader returns {@code null} when the stored metadata is no longer available.
+     */
+    static DefaultCachedMetadata lazilyLoaded(ModuleMetadataCacheEntry entry, ModuleVersionIdentifier moduleVersionId, Factory<ModuleComponentResolveMetadata> metadataLoader, BuildCommencedTimeProvider timeProvider) {
+        return new DefaultCachedMetadata(entry, moduleVersionId, null, metadataLoader, timeProvider);
+    }
+
+    private DefaultCachedMetadata(ModuleMetadataCacheEntry entry, @Nullable ModuleVersionIdentifier moduleVersionId, @Nullable ModuleComponentResolveMetadata metadata, @Nullable Factory<ModuleComponentResolveMetadata> metadataLoader, BuildCommencedTimeProvider timeProvider) {
         this.moduleSource = entry.moduleSource;
         this.ageMillis = timeProvider.getCurrentTime() - entry.createTimestamp;
+        this.moduleVersion = moduleVersionId == null ? null : new DefaultResolvedModuleVersion(moduleVersionId);
         this.metadata = metadata;
+        this.metadataLoader = metadataLoader;
     }
 
     @Override
     public boolean isMissing() {
-        return metadata == null;
+        return metadata == null && metadataLoader == null;
     }
 
     @Override
@@ -51,12 +73,32 @@ class DefaultCachedMetadata implements ModuleMetadataCache.CachedMetadata {
 
     @Override
     public ResolvedModuleVersion getModuleVersion() {
-        return isMissing() ? null : new DefaultResolvedModuleVersion(getMetadata().getModuleVersionId());
+        return moduleVersion;
     }
 
+    @Nullable
     @Override
     public ModuleComponentResolveMetadata getMetadata() {
-        return metadata;
+        if (metadataLoader == null) {
+            return metadata;
+        }
+        SoftReference<ModuleComponentResolveMetadata> reference = loadedMetadata;
+        ModuleComponentResolveMetadata loaded = reference == null ? null : reference.get();
+        if (loaded == null) {
+            loaded = metadataLoader.create();
+            if (loaded != null) {
+                loadedMetadata = new SoftReference<>(loaded);
+            }
+        }
+        return loaded;
+    }
+
+    @VisibleForTesting
+    void releaseLoadedMetadata() {
+        SoftReference<ModuleComponentResolveMetadata> reference = loadedMetadata;
+        if (reference != null) {
+            reference.clear();
+        }
     }
 
     @Override
@@ -33,6 +33,10 @@ public interface ModuleMetadataCache {
     interface CachedMetadata {
         ResolvedModuleVersion getModuleVersion();
 
+        /**
+         * The metadata as stored in the cache, or null when the entry is missing or the stored metadata is no longer available.
+         */
+        @Nullable
         ModuleComponentResolveMetadata getMetadata();
 
         long getAgeMillis();
@@ -66,6 +66,10 @@ public class ModuleMetadataStore {
         return null;
     }
 
+    public boolean hasModuleDescriptor(ModuleComponentAtRepositoryKey component) {
+        return metaDataStore.get(getFilePath(component)) != null;
+    }
+
     public LocallyAvailableResource putModuleDescriptor(ModuleComponentAtRepositoryKey component, final ModuleComponentResolveMetadata metadata) {
         String[] filePath = getFilePath(component);
         return metaDataStore.add(PATH_JOINER.join(filePath), new Action<File>() {
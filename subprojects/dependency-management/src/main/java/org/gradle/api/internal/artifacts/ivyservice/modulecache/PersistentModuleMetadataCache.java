@@ -17,6 +17,7 @@ package org.gradle.api.internal.artifacts.ivyservice.modulecache;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.Interner;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
 import org.gradle.api.internal.artifacts.ivyservice.ArtifactCacheMetadata;
@@ -40,6 +41,7 @@ public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache {
     private PersistentIndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> cache;
     private final ModuleMetadataStore moduleMetadataStore;
     private final ArtifactCacheLockingManager artifactCacheLockingManager;
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
 
     public PersistentModuleMetadataCache(BuildCommencedTimeProvider timeProvider,
                                          ArtifactCacheLockingManager artifactCacheLockingManager,
@@ -52,6 +54,7 @@ public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache {
         super(timeProvider);
         moduleMetadataStore = new ModuleMetadataStore(new DefaultPathKeyFileStore(artifactCacheMetadata.getMetaDataStoreDirectory()), new ModuleMetadataSerializer(attributeContainerSerializer, mavenMetadataFactory, ivyMetadataFactory), moduleIdentifierFactory, stringInterner);
         this.artifactCacheLockingManager = artifactCacheLockingManager;
+        this.moduleIdentifierFactory = moduleIdentifierFactory;
     }
 
     private PersistentIndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> getCache() {
@@ -78,13 +81,15 @@ public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache {
                 if (entry.isMissing()) {
                     return new DefaultCachedMetadata(entry, null, timeProvider);
                 }
-                MutableModuleComponentResolveMetadata metadata = moduleMetadataStore.getModuleDescriptor(key);
-                if (metadata == null) {
+                if (!moduleMetadataStore.hasModuleDescriptor(key)) {
                     // Descriptor file has been deleted - ignore the entry
                     cache.remove(key);
                     return null;
                 }
-                return new DefaultCachedMetadata(entry, entry.configure(metadata), timeProvider);
+                // Defer decoding the descriptor until the metadata is actually requested
+                ModuleComponentIdentifier componentId = key.getComponentId();
+                ModuleVersionIdentifier moduleVersion = moduleIdentifierFactory.moduleWithVersion(componentId.getModuleIdentifier(), componentId.getVersion());
+                return DefaultCachedMetadata.lazilyLoaded(entry, moduleVersion, new StoredMetadataLoader(key, entry), timeProvider);
             }
         });
     }
@@ -106,6 +111,32 @@ public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache {
         }
     }
 
+    private class StoredMetadataLoader implements Factory<ModuleComponentResolveMetadata> {
+        private final ModuleComponentAtRepositoryKey key;
+        private final ModuleMetadataCacheEntry entry;
+
+        StoredMetadataLoader(ModuleComponentAtRepositoryKey key, ModuleMetadataCacheEntry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public ModuleComponentResolveMetadata create() {
+            return artifactCacheLockingManager.useCache(new Factory<ModuleComponentResolveMetadata>() {
+                @Override
+                public ModuleComponentResolveMetadata create() {
+                    MutableModuleComponentResolveMetadata metadata = moduleMetadataStore.getModuleDescriptor(key);
+                    if (metadata == null) {
+                        // Descriptor file has been deleted since the entry was read - treat it as a cache miss
+                        getCache().remove(key);
+                        return null;
+                    }
+                    return entry.configure(metadata);
+                }
+            });
+        }
+    }
+
     private static class RevisionKeySerializer extends AbstractSerializer<ModuleComponentAtRepositoryKey> {
         private final ComponentIdentifierSerializer componentIdSerializer = new ComponentIdentifierSerializer();
 
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions;
+
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Map;
+
+/**
+ * Holds module version listings in memory across builds, so that a long running process does not need to read
+ * the listings for the same modules from the persistent cache on every build.
+ *
+ * <p>Entries only hold the listed versions and the time they were listed at, so the cache policy is still evaluated
+ * against the start time of each build. Only used when {@link #SHARE_ACROSS_BUILDS_PROPERTY} is set.</p>
+ */
+public class CrossBuildModuleVersionListings {
+    public static final String SHARE_ACROSS_BUILDS_PROPERTY = "org.gradle.internal.resolution.share-version-listings";
+    private static final int MAX_ENTRIES = 10000;
+
+    private final Map<ModuleAtRepositoryKey, ModuleVersionsCacheEntry> listings = CacheBuilder.newBuilder()
+        .maximumSize(MAX_ENTRIES)
+        .<ModuleAtRepositoryKey, ModuleVersionsCacheEntry>build()
+        .asMap();
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(SHARE_ACROSS_BUILDS_PROPERTY);
+    }
+
+    Map<ModuleAtRepositoryKey, ModuleVersionsCacheEntry> getListings() {
+        return listings;
+    }
+}
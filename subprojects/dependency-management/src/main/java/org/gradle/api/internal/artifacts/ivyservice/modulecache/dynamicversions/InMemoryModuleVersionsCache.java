@@ -21,16 +21,24 @@ import org.gradle.util.BuildCommencedTimeProvider;
 import java.util.Map;
 
 public class InMemoryModuleVersionsCache extends AbstractModuleVersionsCache {
-    private final Map<ModuleAtRepositoryKey, ModuleVersionsCacheEntry> inMemoryCache = Maps.newConcurrentMap();
+    private final Map<ModuleAtRepositoryKey, ModuleVersionsCacheEntry> inMemoryCache;
     private final AbstractModuleVersionsCache delegate;
 
     public InMemoryModuleVersionsCache(BuildCommencedTimeProvider timeProvider) {
         super(timeProvider);
+        this.inMemoryCache = Maps.newConcurrentMap();
         this.delegate = null;
     }
 
     public InMemoryModuleVersionsCache(BuildCommencedTimeProvider timeProvider, AbstractModuleVersionsCache delegate) {
         super(timeProvider);
+        this.inMemoryCache = Maps.newConcurrentMap();
+        this.delegate = delegate;
+    }
+
+    public InMemoryModuleVersionsCache(BuildCommencedTimeProvider timeProvider, AbstractModuleVersionsCache delegate, CrossBuildModuleVersionListings crossBuildListings) {
+        super(timeProvider);
+        this.inMemoryCache = crossBuildListings.getListings();
         this.delegate = delegate;
     }
 
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.gradle.api.Action;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.internal.SettingsInternal;
+import org.gradle.api.internal.artifacts.ResolveContext;
+import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphNode;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphSelector;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphVisitor;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.RootGraphNode;
+import org.gradle.internal.build.BuildStateRegistry;
+import org.gradle.internal.component.model.DefaultComponentOverrideMetadata;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
+import org.gradle.internal.resolve.result.DefaultBuildableComponentResolveResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which external components the previous resolution of each configuration selected, and fetches the metadata of those
+ * components in parallel before the graph is traversed again. The transitive dependencies of a component are only known once its
+ * metadata is available, so without this a deep graph costs one remote round-trip per level.
+ *
+ * The history is kept by {@link CrossBuildSelectedComponents} and is keyed by the root project directory of the root build and the identity path
+ * of the resolved configuration, so each configuration only ever sees the history of its own previous resolutions.
+ *
+ * The history is only a hint. The graph is still traversed as usual and picks up the prefetched metadata through the regular
+ * metadata caches; components that are no longer part of the graph merely had their metadata fetched for nothing.
+ */
+public class ComponentMetadataPrefetcher {
+    public static final String PREFETCH_METADATA_PROPERTY = "org.gradle.internal.resolution.prefetch-metadata";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentMetadataPrefetcher.class);
+
+    private final boolean enabled;
+    private final Map<String, List<ModuleComponentIdentifier>> previouslySelected;
+    private final BuildStateRegistry buildStateRegistry;
+
+    public ComponentMetadataPrefetcher(CrossBuildSelectedComponents crossBuildSelectedComponents, BuildStateRegistry buildStateRegistry) {
+        this(Boolean.getBoolean(PREFETCH_METADATA_PROPERTY), crossBuildSelectedComponents, buildStateRegistry);
+    }
+
+    public ComponentMetadataPrefetcher(boolean enabled, CrossBuildSelectedComponents crossBuildSelectedComponents, BuildStateRegistry buildStateRegistry) {
+        this.enabled = enabled;
+        this.previouslySelected = crossBuildSelectedComponents.getSelected();
+        this.buildStateRegistry = buildStateRegistry;
+    }
+
+    /**
+     * Fetches the metadata of the components selected by the previous resolution of the given context, where that metadata is not cheaply available.
+     */
+    public void prefetch(ResolveContext resolveContext, final ComponentMetaDataResolver resolver, BuildOperationExecutor buildOperationExecutor) {
+        if (!enabled) {
+            return;
+        }
+        String key = historyKey(resolveContext);
+        if (key == null) {
+            return;
+        }
+        List<ModuleComponentIdentifier> candidates = previouslySelected.get(key);
+        if (candidates == null) {
+            return;
+        }
+        final List<ModuleComponentIdentifier> toFetch = Lists.newArrayList();
+        for (ModuleComponentIdentifier candidate : candidates) {
+            if (!resolver.isFetchingMetadataCheap(candidate)) {
+                toFetch.add(candidate);
+            }
+        }
+        // A single component is fetched just as quickly during traversal
+        if (toFetch.size() < 2) {
+            return;
+        }
+        LOGGER.debug("Prefetching metadata of {} components for {}", toFetch.size(), resolveContext.getDisplayName());
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+            @Override
+            public void execute(BuildOperationQueue<RunnableBuildOperation> queue) {
+                for (ModuleComponentIdentifier id : toFetch) {
+                    queue.add(new PrefetchMetadataOperation(id, resolver));
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a visitor that records the external components selected by the resolution of the given context.
+     */
+    public DependencyGraphVisitor recordSelectedComponents(ResolveContext resolveContext) {
+        if (!enabled) {
+            return DependencyGraphVisitor.NO_OP;
+        }
+        String key = historyKey(resolveContext);
+        if (key == null) {
+            return DependencyGraphVisitor.NO_OP;
+        }
+        return new SelectedComponentsRecorder(key);
+    }
+
+    /**
+     * Returns the key of the history of the given context, or null when the root build does not have its settings loaded yet, for example while buildSrc is built.
+     * The root project directory is used rather than the invocation directory, so that the same build invoked from a subdirectory or with a different project directory shares its history.
+     */
+    @Nullable
+    private String historyKey(ResolveContext resolveContext) {
+        SettingsInternal settings;
+        try {
+            settings = buildStateRegistry.getRootBuild().getLoadedSettings();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+        String buildRootDir = settings.getRootProject().getProjectDir().getAbsolutePath();
+        if (resolveContext instanceof ConfigurationInternal) {
+            return buildRootDir + " " + ((ConfigurationInternal) resolveContext).getIdentityPath();
+        }
+        return buildRootDir + " " + resolveContext.getDisplayName();
+    }
+
+    private class SelectedComponentsRecorder implements DependencyGraphVisitor {
+        private final String key;
+        private final Set<ModuleComponentIdentifier> selected = Sets.newLinkedHashSet();
+
+        SelectedComponentsRecorder(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void start(RootGraphNode root) {
+        }
+
+        @Override
+        public void visitNode(DependencyGraphNode node) {
+            ComponentIdentifier componentId = node.getOwner().getComponentId();
+            if (componentId instanceof ModuleComponentIdentifier) {
+                selected.add((ModuleComponentIdentifier) componentId);
+            }
+        }
+
+        @Override
+        public void visitSelector(DependencyGraphSelector selector) {
+        }
+
+        @Override
+        public void visitEdges(DependencyGraphNode node) {
+        }
+
+        @Override
+        public void finish(DependencyGraphNode root) {
+            previouslySelected.put(key, ImmutableList.copyOf(selected));
+        }
+    }
+
+    private static class PrefetchMetadataOperation implements RunnableBuildOperation {
+        private final ModuleComponentIdentifier id;
+        private final ComponentMetaDataResolver resolver;
+
+        PrefetchMetadataOperation(ModuleComponentIdentifier id, ComponentMetaDataResolver resolver) {
+            this.id = id;
+            this.resolver = resolver;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            try {
+                resolver.resolve(id, new DefaultComponentOverrideMetadata(), new DefaultBuildableComponentResolveResult());
+            } catch (Exception e) {
+                // Failures are reported when the component is resolved during traversal, if it is still part of the graph
+                LOGGER.debug("Could not prefetch metadata of {}", id, e);
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Prefetch metadata of " + id);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine;
+
+import com.google.common.cache.CacheBuilder;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the external components selected by previous resolutions in memory across builds, for use by {@link ComponentMetadataPrefetcher}.
+ *
+ * <p>Entries are keyed by the root project directory of the root build and the identity path of the resolved configuration, so that
+ * different builds run by the same process do not share history.</p>
+ */
+public class CrossBuildSelectedComponents {
+    private static final int MAX_REMEMBERED_RESOLUTIONS = 1000;
+
+    private final Map<String, List<ModuleComponentIdentifier>> selected = CacheBuilder.newBuilder()
+        .maximumSize(MAX_REMEMBERED_RESOLUTIONS)
+        .<String, List<ModuleComponentIdentifier>>build()
+        .asMap();
+
+    Map<String, List<ModuleComponentIdentifier>> getSelected() {
+        return selected;
+    }
+}
@@ -83,6 +83,7 @@ public class DefaultArtifactDependencyResolver implements ArtifactDependencyReso
     private final VersionSelectorScheme versionSelectorScheme;
     private final VersionParser versionParser;
     private final ComponentMetadataSupplierRuleExecutor componentMetadataSupplierRuleExecutor;
+    private final ComponentMetadataPrefetcher componentMetadataPrefetcher;
 
     public DefaultArtifactDependencyResolver(BuildOperationExecutor buildOperationExecutor,
                                              List<ResolverProviderFactory> resolverFactories,
@@ -95,7 +96,8 @@ public class DefaultArtifactDependencyResolver implements ArtifactDependencyReso
                                              ImmutableAttributesFactory attributesFactory,
                                              VersionSelectorScheme versionSelectorScheme,
                                              VersionParser versionParser,
-                                             ComponentMetadataSupplierRuleExecutor componentMetadataSupplierRuleExecutor) {
+                                             ComponentMetadataSupplierRuleExecutor componentMetadataSupplierRuleExecutor,
+                                             ComponentMetadataPrefetcher componentMetadataPrefetcher) {
         this.resolverFactories = resolverFactories;
         this.projectDependencyResolver = projectDependencyResolver;
         this.ivyFactory = ivyFactory;
@@ -108,6 +110,7 @@ public class DefaultArtifactDependencyResolver implements ArtifactDependencyReso
         this.versionSelectorScheme = versionSelectorScheme;
         this.versionParser = versionParser;
         this.componentMetadataSupplierRuleExecutor = componentMetadataSupplierRuleExecutor;
+        this.componentMetadataPrefetcher = componentMetadataPrefetcher;
     }
 
     @Override
@@ -117,9 +120,11 @@ public class DefaultArtifactDependencyResolver implements ArtifactDependencyReso
         DependencyGraphBuilder builder = createDependencyGraphBuilder(resolvers, resolveContext.getResolutionStrategy(), metadataHandler, edgeFilter, consumerSchema, moduleExclusions, buildOperationExecutor);
 
         DependencyGraphVisitor artifactsGraphVisitor = new ResolvedArtifactsGraphVisitor(artifactsVisitor, resolvers.getArtifactSelector());
+        DependencyGraphVisitor prefetchRecorder = componentMetadataPrefetcher.recordSelectedComponents(resolveContext);
 
         // Resolve the dependency graph
-        builder.resolve(resolveContext, new CompositeDependencyGraphVisitor(graphVisitor, artifactsGraphVisitor));
+        componentMetadataPrefetcher.prefetch(resolveContext, resolvers.getComponentResolver(), buildOperationExecutor);
+        builder.resolve(resolveContext, new CompositeDependencyGraphVisitor(graphVisitor, artifactsGraphVisitor, prefetchRecorder));
     }
 
     private DependencyGraphBuilder createDependencyGraphBuilder(ComponentResolversChain componentSource, ResolutionStrategyInternal resolutionStrategy, GlobalDependencyResolutionRules globalRules, Spec<? super DependencyMetadata> edgeFilter, AttributesSchemaInternal attributesSchema, ModuleExclusions moduleExclusions, BuildOperationExecutor buildOperationExecutor) {
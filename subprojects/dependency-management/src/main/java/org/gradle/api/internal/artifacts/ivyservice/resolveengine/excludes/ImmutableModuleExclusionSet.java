@@ -34,6 +34,8 @@ final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion>
 
     // the following fields are used as optimizations, to avoid iterating on the whole set of exclusions
     private ImmutableSet<ModuleIdentifier> excludedModules;
+    private ImmutableSet<String> excludedGroups;
+    private ImmutableSet<String> excludedModuleNames;
     private ImmutableList<AbstractModuleExclusion> moduleExcludes;
     private ImmutableList<AbstractModuleExclusion> artifactExcludes;
 
@@ -48,11 +50,17 @@ final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion>
             return;
         }
         ImmutableSet.Builder<ModuleIdentifier> moduleIds = ImmutableSet.builder();
+        ImmutableSet.Builder<String> groups = ImmutableSet.builder();
+        ImmutableSet.Builder<String> moduleNames = ImmutableSet.builder();
         ImmutableList.Builder<AbstractModuleExclusion> modules = ImmutableList.builder();
         ImmutableList.Builder<AbstractModuleExclusion> artifacts = ImmutableList.builder();
         for (AbstractModuleExclusion exclusion : delegate) {
             if (exclusion instanceof ModuleIdExcludeSpec) {
                 moduleIds.add(((ModuleIdExcludeSpec) exclusion).moduleId);
+            } else if (exclusion instanceof GroupNameExcludeSpec) {
+                groups.add(((GroupNameExcludeSpec) exclusion).group);
+            } else if (exclusion instanceof ModuleNameExcludeSpec) {
+                moduleNames.add(((ModuleNameExcludeSpec) exclusion).module);
             } else {
                 if (!exclusion.excludesNoModules()) {
                     modules.add(exclusion);
@@ -62,6 +70,8 @@ final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion>
                 }
             }
         }
+        excludedGroups = groups.build();
+        excludedModuleNames = moduleNames.build();
         excludedModules = moduleIds.build();
         moduleExcludes = modules.build();
         artifactExcludes = artifacts.build();
@@ -88,15 +98,16 @@ final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion>
     }
 
     /**
-     * This method optimizes module exclusion lookup, based on empirical data showing that the set can be very large, but would contain mostly direct module exclusion nodes. So instead of always
-     * iterating over all excluded modules, we can perform a fast lookup using a set of excluded modules first, then only iterate on the remaining exclusions.
+     * This method optimizes module exclusion lookup, based on empirical data showing that the set can be very large, but would contain mostly direct module, group or module name exclusion nodes.
+     * So instead of always iterating over all excluded modules, we can perform a fast lookup using sets of excluded modules, groups and module names first, then only iterate on the remaining
+     * exclusions.
      *
      * @param id the module to check
      * @return true if it's excluded
      */
     boolean excludesModule(ModuleIdentifier id) {
         precomputeCaches();
-        if (excludedModules.contains(id)) {
+        if (excludedModules.contains(id) || excludedGroups.contains(id.getGroup()) || excludedModuleNames.contains(id.getName())) {
             return true;
         }
         for (AbstractModuleExclusion excludeSpec : moduleExcludes) {
@@ -16,6 +16,8 @@
 
 package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
@@ -50,17 +52,21 @@ import static org.gradle.api.internal.artifacts.ivyservice.resolveengine.exclude
  * <ul> <li>When a module dependency has multiple exclusions, then the resulting exclusion is the _intersection_ of those exclusions (module is excluded if excluded by _any_).</li> <li>When a module
  * is depended on via a transitive path, then the resulting exclusion is the _intersection_ of the exclusions on each leg of the path (module is excluded if excluded by _any_).</li> <li>When a module
  * is depended on via multiple paths in the graph, then the resulting exclusion is the _union_ of the exclusions on each of those paths (module is excluded if excluded by _all_).</li> </ul>
+ *
+ * <p>The caches of merged and interned exclusions are bounded, so that builds with many distinct exclude rules do not retain every intermediate exclusion for the lifetime of the build.</p>
  */
 public class ModuleExclusions {
     private static final ExcludeNone EXCLUDE_NONE = new ExcludeNone();
     private static final ExcludeAllModulesSpec EXCLUDE_ALL_MODULES_SPEC = new ExcludeAllModulesSpec();
+    private static final int MAX_CACHE_SIZE = 10000;
 
     private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
 
-    private final Map<MergeOperation, AbstractModuleExclusion> mergeCache = Maps.newConcurrentMap();
-    private final Map<ImmutableList<ExcludeMetadata>, AbstractModuleExclusion> excludeAnyCache = Maps.newConcurrentMap();
-    private final Map<ImmutableSet<AbstractModuleExclusion>, EitherExclusion> eitherCache = Maps.newConcurrentMap();
-    private final Map<AbstractModuleExclusion[], Map<AbstractModuleExclusion[], MergeOperation>> mergeOperationCache = Maps.newIdentityHashMap();
+    private final Cache<MergeOperation, AbstractModuleExclusion> mergeCache = CacheBuilder.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+    private final Cache<ImmutableList<ExcludeMetadata>, AbstractModuleExclusion> excludeAnyCache = CacheBuilder.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+    private final Cache<ImmutableSet<AbstractModuleExclusion>, EitherExclusion> eitherCache = CacheBuilder.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+    // Weak keys are compared by identity, which is what we want for the filter arrays of interned exclusions
+    private final Cache<AbstractModuleExclusion[], Map<AbstractModuleExclusion[], MergeOperation>> mergeOperationCache = CacheBuilder.newBuilder().weakKeys().maximumSize(MAX_CACHE_SIZE).build();
     private final Map<ModuleIdentifier, ModuleIdExcludeSpec> moduleIdSpecs = Maps.newConcurrentMap();
     private final Map<String, ModuleNameExcludeSpec> moduleNameSpecs = Maps.newConcurrentMap();
     private final Map<String, GroupNameExcludeSpec> groupNameSpecs = Maps.newConcurrentMap();
@@ -95,7 +101,7 @@ public class ModuleExclusions {
         if (excludes.isEmpty()) {
             return EXCLUDE_NONE;
         }
-        AbstractModuleExclusion exclusion = excludeAnyCache.get(excludes);
+        AbstractModuleExclusion exclusion = excludeAnyCache.getIfPresent(excludes);
         if (exclusion != null) {
             return exclusion;
         }
@@ -270,7 +276,7 @@ public class ModuleExclusions {
             }
 
             MergeOperation merge = mergeOperation(oneFilters, otherFilters);
-            AbstractModuleExclusion exclusion = mergeCache.get(merge);
+            AbstractModuleExclusion exclusion = mergeCache.getIfPresent(merge);
             if (exclusion != null) {
                 return exclusion;
             }
@@ -281,7 +287,7 @@ public class ModuleExclusions {
 
     private MergeOperation mergeOperation(AbstractModuleExclusion[] one, AbstractModuleExclusion[] two) {
         synchronized (mergeOperationLock) {
-            Map<AbstractModuleExclusion[], MergeOperation> oneMap = mergeOperationCache.get(one);
+            Map<AbstractModuleExclusion[], MergeOperation> oneMap = mergeOperationCache.getIfPresent(one);
             if (oneMap == null) {
                 oneMap = Maps.newIdentityHashMap();
                 mergeOperationCache.put(one, oneMap);
@@ -322,7 +328,7 @@ public class ModuleExclusions {
     }
 
     private EitherExclusion asEither(ImmutableSet<AbstractModuleExclusion> excludes) {
-        EitherExclusion cached = eitherCache.get(excludes);
+        EitherExclusion cached = eitherCache.getIfPresent(excludes);
         if (cached == null) {
             cached = new EitherExclusion(new ImmutableModuleExclusionSet(excludes));
             eitherCache.put(excludes, cached);
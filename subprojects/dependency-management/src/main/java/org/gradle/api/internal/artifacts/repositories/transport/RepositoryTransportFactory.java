@@ -34,6 +34,7 @@ import org.gradle.internal.resource.cached.CachedExternalResourceIndex;
 import org.gradle.internal.resource.connector.ResourceConnectorFactory;
 import org.gradle.internal.resource.connector.ResourceConnectorSpecification;
 import org.gradle.internal.resource.local.FileResourceRepository;
+import org.gradle.internal.resource.transfer.ConcurrencyLimitingExternalResourceConnector;
 import org.gradle.internal.resource.transfer.ExternalResourceConnector;
 import org.gradle.internal.resource.transport.ResourceConnectorRepositoryTransport;
 import org.gradle.internal.resource.transport.file.FileTransport;
@@ -45,6 +46,12 @@ import java.util.List;
 import java.util.Set;
 
 public class RepositoryTransportFactory {
+    /**
+     * When set to a positive value, limits the number of resources that are downloaded concurrently from each repository host,
+     * across all repositories and configurations resolved by the build.
+     */
+    public static final String MAX_CONCURRENT_DOWNLOADS_PER_HOST_PROPERTY = "org.gradle.internal.repository.max-concurrent-downloads-per-host";
+
     private final List<ResourceConnectorFactory> registeredProtocols = Lists.newArrayList();
 
     private final TemporaryFileProvider temporaryFileProvider;
@@ -56,6 +63,7 @@ public class RepositoryTransportFactory {
     private final StartParameterResolutionOverride startParameterResolutionOverride;
     private final ProducerGuard<ExternalResourceName> producerGuard;
     private final FileResourceRepository fileRepository;
+    private final ConcurrencyLimitingExternalResourceConnector.HostPermits hostPermits;
 
     public RepositoryTransportFactory(Collection<ResourceConnectorFactory> resourceConnectorFactory,
                                       ProgressLoggerFactory progressLoggerFactory,
@@ -76,6 +84,8 @@ public class RepositoryTransportFactory {
         this.startParameterResolutionOverride = startParameterResolutionOverride;
         this.producerGuard = producerGuard;
         this.fileRepository = fileRepository;
+        int maxConcurrentDownloadsPerHost = Integer.getInteger(MAX_CONCURRENT_DOWNLOADS_PER_HOST_PROPERTY, 0);
+        this.hostPermits = maxConcurrentDownloadsPerHost > 0 ? new ConcurrencyLimitingExternalResourceConnector.HostPermits(maxConcurrentDownloadsPerHost) : null;
 
         for (ResourceConnectorFactory connectorFactory : resourceConnectorFactory) {
             register(connectorFactory);
@@ -117,6 +127,9 @@ public class RepositoryTransportFactory {
 
         ExternalResourceConnector resourceConnector = connectorFactory.createResourceConnector(connectionDetails);
         resourceConnector = startParameterResolutionOverride.overrideExternalResourceConnector(resourceConnector);
+        if (hostPermits != null) {
+            resourceConnector = new ConcurrencyLimitingExternalResourceConnector(resourceConnector, hostPermits);
+        }
 
         ExternalResourceCachePolicy cachePolicy = new DefaultExternalResourceCachePolicy();
         cachePolicy = startParameterResolutionOverride.overrideExternalResourceCachePolicy(cachePolicy);
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transfer;
+
+import org.gradle.api.resources.ResourceException;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.resource.ReadableContent;
+import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of resources that are read concurrently from each host. A permit for the host is held from the time a resource is opened until it is closed.
+ */
+public class ConcurrencyLimitingExternalResourceConnector implements ExternalResourceConnector {
+    private final ExternalResourceConnector delegate;
+    private final HostPermits permits;
+
+    public ConcurrencyLimitingExternalResourceConnector(ExternalResourceConnector delegate, HostPermits permits) {
+        this.delegate = delegate;
+        this.permits = permits;
+    }
+
+    @Nullable
+    @Override
+    public ExternalResourceReadResponse openResource(URI location, boolean revalidate) throws ResourceException {
+        Semaphore permit = permits.forHost(location);
+        try {
+            permit.acquire();
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        ExternalResourceReadResponse response = null;
+        try {
+            response = delegate.openResource(location, revalidate);
+        } finally {
+            if (response == null) {
+                permit.release();
+            }
+        }
+        return response == null ? null : new PermitReleasingReadResponse(response, permit);
+    }
+
+    @Nullable
+    @Override
+    public ExternalResourceMetaData getMetaData(URI location, boolean revalidate) throws ResourceException {
+        return delegate.getMetaData(location, revalidate);
+    }
+
+    @Nullable
+    @Override
+    public List<String> list(URI parent) throws ResourceException {
+        return delegate.list(parent);
+    }
+
+    @Override
+    public void upload(ReadableContent resource, URI destination) throws IOException {
+        delegate.upload(resource, destination);
+    }
+
+    /**
+     * The permits for each host, shared by all connectors of a build.
+     */
+    public static class HostPermits {
+        private final int maxConcurrentReadsPerHost;
+        private final ConcurrentMap<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+        public HostPermits(int maxConcurrentReadsPerHost) {
+            this.maxConcurrentReadsPerHost = maxConcurrentReadsPerHost;
+        }
+
+        Semaphore forHost(URI location) {
+            String host = location.getHost() == null ? "" : location.getHost();
+            Semaphore permits = permitsByHost.get(host);
+            if (permits == null) {
+                permits = new Semaphore(maxConcurrentReadsPerHost);
+                Semaphore existing = permitsByHost.putIfAbsent(host, permits);
+                if (existing != null) {
+                    permits = existing;
+                }
+            }
+            return permits;
+        }
+    }
+
+    private static class PermitReleasingReadResponse implements ExternalResourceReadResponse {
+        private final ExternalResourceReadResponse delegate;
+        private final Semaphore permit;
+        private boolean released;
+
+        PermitReleasingReadResponse(ExternalResourceReadResponse delegate, Semaphore permit) {
+            this.delegate = delegate;
+            this.permit = permit;
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return delegate.openStream();
+        }
+
+        @Override
+        public ExternalResourceMetaData getMetaData() {
+            return delegate.getMetaData();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                if (!released) {
+                    released = true;
+                    permit.release();
+                }
+            }
+        }
+
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -18,6 +18,8 @@ package org.gradle.api.internal.artifacts
 
 import spock.lang.Specification
 
+import java.util.concurrent.ConcurrentLinkedQueue
+
 class DefaultImmutableModuleIdentifierFactoryTest extends Specification {
     def factory = new DefaultImmutableModuleIdentifierFactory()
 
@@ -56,4 +58,20 @@ class DefaultImmutableModuleIdentifierFactoryTest extends Specification {
         then:
         m2.module.is(m1)
     }
+
+    def "returns the same instances to concurrent callers"() {
+        def results = new ConcurrentLinkedQueue()
+
+        when:
+        def threads = (1..8).collect {
+            Thread.start {
+                100.times { i -> results << factory.moduleWithVersion('foo', "bar${i % 10}", '1.0') }
+            }
+        }
+        threads*.join()
+
+        then:
+        results.size() == 800
+        results.groupBy { it.module.name }.values().every { ids -> ids.every { it.is(ids[0]) && it.module.is(ids[0].module) } }
+    }
 }
@@ -258,4 +258,47 @@ class CachingModuleComponentRepositoryTest extends Specification {
         true              | MetadataFetchingCost.FAST      | MetadataFetchingCost.FAST
         true              | MetadataFetchingCost.EXPENSIVE | MetadataFetchingCost.EXPENSIVE
     }
+
+    def "does not load cached metadata when the entry must be refreshed whether or not the module is changing"() {
+        def module = Mock(ModuleComponentIdentifier)
+        def cachedMetadata = Mock(ModuleMetadataCache.CachedMetadata)
+        def result = new DefaultBuildableModuleComponentMetaDataResolveResult()
+        cachePolicy.mustRefreshChangingModule(_, _, _) >> true
+        cachePolicy.mustRefreshModule(_, _, _) >> true
+        moduleDescriptorCache.getCachedModuleDescriptor(_, module) >> cachedMetadata
+
+        when:
+        repo.localAccess.resolveComponentMetaData(module, Stub(ComponentOverrideMetadata), result)
+
+        then:
+        0 * cachedMetadata.getMetadata()
+        !result.hasResult()
+    }
+
+    def "treats cached metadata that is no longer available as a cache miss"() {
+        def module = Mock(ModuleComponentIdentifier)
+        def result = new DefaultBuildableModuleComponentMetaDataResolveResult()
+        moduleDescriptorCache.getCachedModuleDescriptor(_, module) >> Stub(ModuleMetadataCache.CachedMetadata) {
+            getProcessedMetadata(_) >> null
+            getMetadata() >> null
+        }
+
+        when:
+        repo.localAccess.resolveComponentMetaData(module, Stub(ComponentOverrideMetadata), result)
+
+        then:
+        !result.hasResult()
+    }
+
+    def "estimates cost via remote when cached metadata is no longer available"() {
+        def module = Mock(ModuleComponentIdentifier)
+        realRemoteAccess.estimateMetadataFetchingCost(module) >> MetadataFetchingCost.EXPENSIVE
+        moduleDescriptorCache.getCachedModuleDescriptor(_, module) >> Stub(ModuleMetadataCache.CachedMetadata) {
+            getProcessedMetadata(_) >> null
+            getMetadata() >> null
+        }
+
+        expect:
+        repo.localAccess.estimateMetadataFetchingCost(module) == MetadataFetchingCost.EXPENSIVE
+    }
 }
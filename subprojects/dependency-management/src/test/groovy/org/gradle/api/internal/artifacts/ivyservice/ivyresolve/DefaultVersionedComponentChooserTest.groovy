@@ -278,6 +278,24 @@ class DefaultVersionedComponentChooserTest extends Specification {
 
     }
 
+    def "does not require metadata of versions rejected by selector when matching attributes"() {
+        given:
+        def a = component('1.2', 'release', [color: 'red'])
+        def b = component('1.3')
+        def selectedComponentResult = Mock(ComponentSelectionContext)
+        consumerAttributes = AttributeTestUtil.attributes(color: 'red')
+
+        when:
+        chooser.selectNewestMatchingComponent([a, b], selectedComponentResult, versionSelectorScheme.parseSelector("1.+"), versionSelectorScheme.parseSelector("1.3"), consumerAttributes)
+
+        then:
+        _ * componentSelectionRules.rules >> []
+        1 * selectedComponentResult.getContentFilter() >> null
+        1 * selectedComponentResult.rejectedBySelector(b.id, _)
+        1 * selectedComponentResult.matches(a.id)
+        0 * _
+    }
+
     def "returns no match when no versions match without metadata"() {
         given:
         def a = component('1.2')
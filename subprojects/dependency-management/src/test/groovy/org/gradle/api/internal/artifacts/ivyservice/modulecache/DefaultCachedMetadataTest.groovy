@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier
+import org.gradle.internal.Factory
+import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata
+import org.gradle.internal.component.model.ModuleSource
+import org.gradle.util.BuildCommencedTimeProvider
+import spock.lang.Specification
+
+class DefaultCachedMetadataTest extends Specification {
+    def timeProvider = Stub(BuildCommencedTimeProvider) {
+        getCurrentTime() >> 1000
+    }
+    def moduleSource = Stub(ModuleSource)
+    def entry = new ModuleMetadataCacheEntry(ModuleMetadataCacheEntry.TYPE_PRESENT, false, 400, moduleSource)
+    def moduleVersionId = DefaultModuleVersionIdentifier.newId(DefaultModuleIdentifier.newId("org", "foo"), "1.0")
+    def loader = Mock(Factory)
+
+    def "exposes entry details without loading metadata"() {
+        when:
+        def cachedMetadata = DefaultCachedMetadata.lazilyLoaded(entry, moduleVersionId, loader, timeProvider)
+
+        then:
+        !cachedMetadata.missing
+        cachedMetadata.ageMillis == 600
+        cachedMetadata.moduleSource == moduleSource
+        cachedMetadata.moduleVersion.id == moduleVersionId
+        0 * loader._
+    }
+
+    def "loads metadata when first requested and reuses it afterwards"() {
+        def metadata = Stub(ModuleComponentResolveMetadata)
+        def cachedMetadata = DefaultCachedMetadata.lazilyLoaded(entry, moduleVersionId, loader, timeProvider)
+
+        when:
+        def first = cachedMetadata.metadata
+        def second = cachedMetadata.metadata
+
+        then:
+        1 * loader.create() >> metadata
+        0 * loader._
+        first == metadata
+        second == metadata
+    }
+
+    def "reloads metadata once the loaded metadata has been released"() {
+        def metadata = Stub(ModuleComponentResolveMetadata)
+        def reloaded = Stub(ModuleComponentResolveMetadata)
+        def cachedMetadata = DefaultCachedMetadata.lazilyLoaded(entry, moduleVersionId, loader, timeProvider)
+
+        when:
+        def first = cachedMetadata.metadata
+        cachedMetadata.releaseLoadedMetadata()
+        def second = cachedMetadata.metadata
+
+        then:
+        2 * loader.create() >>> [metadata, reloaded]
+        first == metadata
+        second == reloaded
+        cachedMetadata.moduleVersion.id == moduleVersionId
+    }
+
+    def "does not reload metadata to determine module version"() {
+        def cachedMetadata = DefaultCachedMetadata.lazilyLoaded(entry, moduleVersionId, loader, timeProvider)
+        cachedMetadata.metadata
+        cachedMetadata.releaseLoadedMetadata()
+
+        when:
+        def moduleVersion = cachedMetadata.moduleVersion
+
+        then:
+        moduleVersion.id == moduleVersionId
+        0 * loader._
+    }
+
+    def "returns null metadata when stored metadata is no longer available and tries again on next request"() {
+        def metadata = Stub(ModuleComponentResolveMetadata)
+        def cachedMetadata = DefaultCachedMetadata.lazilyLoaded(entry, moduleVersionId, loader, timeProvider)
+
+        when:
+        def first = cachedMetadata.metadata
+        def second = cachedMetadata.metadata
+
+        then:
+        2 * loader.create() >>> [null, metadata]
+        first == null
+        second == metadata
+    }
+
+    def "uses eagerly provided metadata"() {
+        def metadata = Stub(ModuleComponentResolveMetadata) {
+            getModuleVersionId() >> moduleVersionId
+        }
+
+        when:
+        def cachedMetadata = new DefaultCachedMetadata(entry, metadata, timeProvider)
+
+        then:
+        !cachedMetadata.missing
+        cachedMetadata.metadata == metadata
+        cachedMetadata.moduleVersion.id == moduleVersionId
+    }
+
+    def "represents missing module"() {
+        when:
+        def cachedMetadata = new DefaultCachedMetadata(ModuleMetadataCacheEntry.forMissingModule(400), null, timeProvider)
+
+        then:
+        cachedMetadata.missing
+        cachedMetadata.metadata == null
+        cachedMetadata.moduleVersion == null
+    }
+}
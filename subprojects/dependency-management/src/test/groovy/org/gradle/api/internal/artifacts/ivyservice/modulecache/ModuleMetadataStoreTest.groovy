@@ -58,6 +58,15 @@ class ModuleMetadataStoreTest extends Specification {
         1 * pathKeyFileStore.get("org.test", "testArtifact", "1.0", "repositoryId", "descriptor.bin") >> null
     }
 
+    def "hasModuleDescriptor checks for file without reading it"() {
+        when:
+        def present = store.hasModuleDescriptor(new ModuleComponentAtRepositoryKey(repository, moduleComponentIdentifier))
+        then:
+        1 * pathKeyFileStore.get("org.test", "testArtifact", "1.0", "repositoryId", "descriptor.bin") >> fileStoreEntry
+        0 * serializer._
+        present
+    }
+
     def "putModuleDescriptor uses PathKeyFileStore to write file"() {
         setup:
         File descriptorFile = temporaryFolder.createFile("fileStoreEntry")
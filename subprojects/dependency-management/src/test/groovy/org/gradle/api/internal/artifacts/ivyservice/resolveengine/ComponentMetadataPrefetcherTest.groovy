@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine
+
+import org.gradle.StartParameter
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier
+import org.gradle.api.initialization.ProjectDescriptor
+import org.gradle.api.internal.SettingsInternal
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphComponent
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphNode
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphVisitor
+import org.gradle.internal.build.BuildStateRegistry
+import org.gradle.internal.build.RootBuildState
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver
+import org.gradle.util.Path
+import spock.lang.Specification
+
+import static org.gradle.internal.component.local.model.TestComponentIdentifiers.newProjectId
+
+class ComponentMetadataPrefetcherTest extends Specification {
+    def buildOperationExecutor = new TestBuildOperationExecutor()
+    def resolver = Mock(ComponentMetaDataResolver)
+    def history = new CrossBuildSelectedComponents()
+    def buildStateRegistry = buildAt(new File("build"))
+    def context = configuration(":compile")
+    def a = id("a")
+    def b = id("b")
+    def c = id("c")
+
+    def "does nothing when disabled"() {
+        def prefetcher = new ComponentMetadataPrefetcher(false, history, buildStateRegistry)
+
+        when:
+        record(prefetcher, a, b)
+        prefetcher.prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        prefetcher.recordSelectedComponents(context) == DependencyGraphVisitor.NO_OP
+        0 * resolver._
+    }
+
+    def "does nothing for a context that has not been resolved before"() {
+        def prefetcher = new ComponentMetadataPrefetcher(true, history, buildStateRegistry)
+
+        when:
+        prefetcher.prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        0 * resolver._
+    }
+
+    def "fetches metadata of previously selected external components that is not cheaply available"() {
+        def prefetcher = new ComponentMetadataPrefetcher(true, history, buildStateRegistry)
+        record(prefetcher, a, b, newProjectId(":other"), c)
+
+        when:
+        prefetcher.prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        1 * resolver.isFetchingMetadataCheap(a) >> false
+        1 * resolver.isFetchingMetadataCheap(b) >> true
+        1 * resolver.isFetchingMetadataCheap(c) >> false
+        1 * resolver.resolve(a, _, _)
+        1 * resolver.resolve(c, _, _)
+        0 * resolver._
+    }
+
+    def "ignores prefetch failures"() {
+        def prefetcher = new ComponentMetadataPrefetcher(true, history, buildStateRegistry)
+        record(prefetcher, a, b)
+
+        when:
+        prefetcher.prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        2 * resolver.isFetchingMetadataCheap(_) >> false
+        1 * resolver.resolve(a, _, _) >> { throw new RuntimeException("broken") }
+        1 * resolver.resolve(b, _, _)
+        noExceptionThrown()
+    }
+
+    def "does not prefetch a single component"() {
+        def prefetcher = new ComponentMetadataPrefetcher(true, history, buildStateRegistry)
+        record(prefetcher, a)
+
+        when:
+        prefetcher.prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        1 * resolver.isFetchingMetadataCheap(a) >> false
+        0 * resolver._
+    }
+
+    def "keeps history of each configuration identity separately"() {
+        def prefetcher = new ComponentMetadataPrefetcher(true, history, buildStateRegistry)
+        def other = configuration(":included:compile")
+        record(prefetcher, a, b)
+
+        when:
+        prefetcher.prefetch(other, resolver, buildOperationExecutor)
+
+        then:
+        0 * resolver._
+    }
+
+    def "does not share history between builds"() {
+        def prefetcher = new ComponentMetadataPrefetcher(true, history, buildStateRegistry)
+        def otherBuild = new ComponentMetadataPrefetcher(true, history, buildAt(new File("other")))
+        record(prefetcher, a, b)
+
+        when:
+        otherBuild.prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        0 * resolver._
+
+        when:
+        new ComponentMetadataPrefetcher(true, history, buildAt(new File("build"))).prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        2 * resolver.isFetchingMetadataCheap(_) >> false
+        1 * resolver.resolve(a, _, _)
+        1 * resolver.resolve(b, _, _)
+        0 * resolver._
+    }
+
+    def "shares history with the same build invoked from a subdirectory"() {
+        def prefetcher = new ComponentMetadataPrefetcher(true, history, buildStateRegistry)
+        def settings = buildStateRegistry.rootBuild.loadedSettings
+        def startParameter = new StartParameter()
+        startParameter.currentDir = new File("build/sub")
+        def fromSubdirectory = new ComponentMetadataPrefetcher(true, history, Stub(BuildStateRegistry) {
+            getRootBuild() >> Stub(RootBuildState) {
+                getStartParameter() >> startParameter
+                getLoadedSettings() >> settings
+            }
+        })
+        record(prefetcher, a, b)
+
+        when:
+        fromSubdirectory.prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        2 * resolver.isFetchingMetadataCheap(_) >> false
+        1 * resolver.resolve(a, _, _)
+        1 * resolver.resolve(b, _, _)
+        0 * resolver._
+    }
+
+    def "does nothing before the settings of the root build are loaded"() {
+        def prefetcher = new ComponentMetadataPrefetcher(true, history, buildStateRegistry)
+        def notLoaded = new ComponentMetadataPrefetcher(true, history, Stub(BuildStateRegistry) {
+            getRootBuild() >> Stub(RootBuildState) {
+                getLoadedSettings() >> { throw new IllegalStateException("not loaded") }
+            }
+        })
+        record(prefetcher, a, b)
+
+        when:
+        notLoaded.prefetch(context, resolver, buildOperationExecutor)
+
+        then:
+        notLoaded.recordSelectedComponents(context) == DependencyGraphVisitor.NO_OP
+        0 * resolver._
+    }
+
+    private void record(ComponentMetadataPrefetcher prefetcher, Object... ids) {
+        def visitor = prefetcher.recordSelectedComponents(context)
+        visitor.start(null)
+        ids.each { componentId ->
+            visitor.visitNode(Stub(DependencyGraphNode) {
+                getOwner() >> Stub(DependencyGraphComponent) {
+                    getComponentId() >> componentId
+                }
+            })
+        }
+        visitor.finish(null)
+    }
+
+    private ConfigurationInternal configuration(String identityPath) {
+        Stub(ConfigurationInternal) {
+            getIdentityPath() >> Path.path(identityPath)
+            getDisplayName() >> "configuration '${Path.path(identityPath).name}'"
+        }
+    }
+
+    private BuildStateRegistry buildAt(File rootDir) {
+        def settings = Stub(SettingsInternal) {
+            getRootProject() >> Stub(ProjectDescriptor) {
+                getProjectDir() >> rootDir
+            }
+        }
+        Stub(BuildStateRegistry) {
+            getRootBuild() >> Stub(RootBuildState) {
+                getLoadedSettings() >> settings
+            }
+        }
+    }
+
+    private static ModuleComponentIdentifier id(String name) {
+        DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("group", name), "1.0")
+    }
+}
@@ -71,6 +71,8 @@ import org.gradle.internal.resolve.resolver.ResolveContextToComponentResolver
 import org.gradle.internal.resolve.result.BuildableComponentIdResolveResult
 import org.gradle.internal.resolve.result.BuildableComponentResolveResult
 import org.gradle.util.AttributeTestUtil
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
 import spock.lang.Specification
 
 import static org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier.newId
@@ -116,6 +118,9 @@ class DependencyGraphBuilderTest extends Specification {
 
     DependencyGraphBuilder builder
 
+    @Rule
+    SetSystemProperties systemProperties = new SetSystemProperties()
+
     def setup() {
         _ * configuration.name >> 'root'
         _ * configuration.path >> 'root'
@@ -149,6 +154,26 @@ class DependencyGraphBuilderTest extends Specification {
         result.components == ids(root, a, b, c)
     }
 
+    def "resolves metadata of all external components in parallel when enabled"() {
+        given:
+        System.setProperty(DependencyGraphBuilder.PARALLEL_CACHED_METADATA_PROPERTY, "true")
+        builder = new DependencyGraphBuilder(idResolver, metaDataResolver, moduleResolver, moduleConflictHandler, capabilitiesConflictHandler, Specs.satisfyAll(), attributesSchema, moduleExclusions, buildOperationProcessor, moduleReplacements, dependencySubstitutionApplicator, componentSelectorConverter, AttributeTestUtil.attributesFactory(), versionSelectorScheme, Stub(Comparator), new VersionParser())
+        def a = revision("a")
+        def b = revision("b")
+        def c = revision("c")
+        traverses root, a
+        traverses root, b
+        traverses a, c
+
+        when:
+        def result = resolve()
+        result.rethrowFailure()
+
+        then:
+        0 * metaDataResolver.isFetchingMetadataCheap(_)
+        result.components == ids(root, a, b, c)
+    }
+
     def "honors component replacements"() {
         given:
         def a = revision('a') // a->c
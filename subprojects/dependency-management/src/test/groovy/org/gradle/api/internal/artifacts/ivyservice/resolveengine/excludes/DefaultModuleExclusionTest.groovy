@@ -290,6 +290,19 @@ class DefaultModuleExclusionTest extends Specification {
         !spec.excludeModule(moduleId("regexp", "module2"))
     }
 
+    def "does not accept module that matches any of many group or module name exclude rules"() {
+        def rules = (1..50).collect { [excludeGroupRule("group$it"), excludeModuleRule("module$it"), excludeRule("org", "lib$it")] }.flatten()
+        def spec = excludeAny(rules as Exclude[])
+
+        expect:
+        spec.excludeModule(moduleId("group17", "anything"))
+        spec.excludeModule(moduleId("anything", "module42"))
+        spec.excludeModule(moduleId("org", "lib3"))
+        !spec.excludeModule(moduleId("group", "module"))
+        !spec.excludeModule(moduleId("org", "lib51"))
+        !spec.excludeArtifact(moduleId("group17", "anything"), artifactName("a", "jar", "jar"))
+    }
+
     def "specs with the same set of exclude rules accept the same modules as each other"() {
         def rule1 = excludeRule("org", "module")
         def rule2 = excludeRule("org", "module2")
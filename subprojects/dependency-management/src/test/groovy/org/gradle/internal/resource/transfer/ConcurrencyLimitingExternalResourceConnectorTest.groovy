@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transfer
+
+import spock.lang.Specification
+
+class ConcurrencyLimitingExternalResourceConnectorTest extends Specification {
+    def delegate = Mock(ExternalResourceConnector)
+    def permits = new ConcurrencyLimitingExternalResourceConnector.HostPermits(1)
+    def connector = new ConcurrencyLimitingExternalResourceConnector(delegate, permits)
+    def location = new URI("https://repo.example.com/group/module/1.0/module-1.0.jar")
+
+    def "holds permit for host until resource is closed"() {
+        def response = Mock(ExternalResourceReadResponse)
+
+        when:
+        def result = connector.openResource(location, false)
+
+        then:
+        1 * delegate.openResource(location, false) >> response
+        permits.forHost(location).availablePermits() == 0
+        permits.forHost(new URI("https://other.example.com/module.jar")).availablePermits() == 1
+
+        when:
+        result.close()
+        result.close()
+
+        then:
+        2 * response.close()
+        permits.forHost(location).availablePermits() == 1
+    }
+
+    def "releases permit when resource is missing"() {
+        when:
+        def result = connector.openResource(location, false)
+
+        then:
+        1 * delegate.openResource(location, false) >> null
+        result == null
+        permits.forHost(location).availablePermits() == 1
+    }
+
+    def "releases permit when resource cannot be opened"() {
+        def failure = new RuntimeException("broken")
+
+        when:
+        connector.openResource(location, false)
+
+        then:
+        1 * delegate.openResource(location, false) >> { throw failure }
+        def e = thrown(RuntimeException)
+        e == failure
+        permits.forHost(location).availablePermits() == 1
+    }
+
+    def "does not limit metadata requests"() {
+        when:
+        connector.getMetaData(location, true)
+        connector.list(location)
+
+        then:
+        1 * delegate.getMetaData(location, true)
+        1 * delegate.list(location)
+        permits.forHost(location).availablePermits() == 1
+    }
+}
@@ -19,10 +19,14 @@ package org.gradle.api.internal.tasks.compile;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyShell;
 import groovy.lang.GroovySystem;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
@@ -177,6 +181,9 @@ public class ApiGroovyCompiler implements org.gradle.language.base.internal.comp
 
         try {
             unit.compile();
+            if (spec.getSourceClassesMappingFile() != null) {
+                SourceClassesMappingFile.write(spec.getSourceClassesMappingFile(), getSourceClassesMapping(unit));
+            }
         } catch (org.codehaus.groovy.control.CompilationFailedException e) {
             System.err.println(e.getMessage());
             // Explicit flush, System.err is an auto-flushing PrintWriter unless it is replaced.
@@ -194,6 +201,22 @@ public class ApiGroovyCompiler implements org.gradle.language.base.internal.comp
         return WorkResults.didWork(true);
     }
 
+    private static Multimap<File, String> getSourceClassesMapping(CompilationUnit unit) {
+        Multimap<File, String> mapping = LinkedHashMultimap.create();
+        for (ModuleNode module : unit.getAST().getModules()) {
+            if (module.getContext() == null) {
+                continue;
+            }
+            File sourceFile = new File(module.getContext().getName());
+            for (ClassNode classNode : module.getClasses()) {
+                if (classNode.getOuterClass() == null) {
+                    mapping.put(sourceFile, classNode.getName());
+                }
+            }
+        }
+        return mapping;
+    }
+
     private boolean shouldProcessAnnotations(GroovyJavaJointCompileSpec spec) {
         return spec.getGroovyCompileOptions().isJavaAnnotationProcessing()
             && !spec.getAnnotationProcessorPath().isEmpty()
@@ -18,6 +18,7 @@ package org.gradle.api.internal.tasks.compile;
 
 import org.gradle.api.tasks.compile.GroovyCompileOptions;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.List;
 
@@ -27,4 +28,12 @@ public interface GroovyCompileSpec extends JvmLanguageCompileSpec {
     List<File> getGroovyClasspath();
 
     void setGroovyClasspath(List<File> classpath);
+
+    /**
+     * The file in which to record the top-level classes compiled from each Groovy source file, or null if they should not be recorded.
+     */
+    @Nullable
+    File getSourceClassesMappingFile();
+
+    void setSourceClassesMappingFile(@Nullable File sourceClassesMappingFile);
 }
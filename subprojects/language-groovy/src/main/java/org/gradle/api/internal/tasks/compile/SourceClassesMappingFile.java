@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.io.Files;
+import org.gradle.internal.UncheckedException;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the file in which the Groovy compiler records the top-level classes it compiled from each source file.
+ *
+ * <p>Each source file is written as an absolute path on its own line, followed by the names of its classes, one per line, indented by a tab.</p>
+ */
+public class SourceClassesMappingFile {
+    private SourceClassesMappingFile() {
+    }
+
+    public static Multimap<File, String> read(File mappingFile) {
+        Multimap<File, String> mapping = LinkedHashMultimap.create();
+        try {
+            List<String> lines = Files.readLines(mappingFile, Charsets.UTF_8);
+            File sourceFile = null;
+            for (String line : lines) {
+                if (line.startsWith("\t")) {
+                    if (sourceFile == null) {
+                        throw new IOException("Class name without source file in " + mappingFile);
+                    }
+                    mapping.put(sourceFile, line.substring(1));
+                } else if (!line.isEmpty()) {
+                    sourceFile = new File(line);
+                }
+            }
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        return mapping;
+    }
+
+    public static void write(File mappingFile, Multimap<File, String> mapping) {
+        try {
+            Files.createParentDirs(mappingFile);
+            BufferedWriter writer = Files.newWriter(mappingFile, Charsets.UTF_8);
+            try {
+                for (Map.Entry<File, Collection<String>> entry : mapping.asMap().entrySet()) {
+                    writer.write(entry.getKey().getAbsolutePath());
+                    writer.newLine();
+                    for (String className : entry.getValue()) {
+                        writer.write('\t');
+                        writer.write(className);
+                        writer.newLine();
+                    }
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
@@ -94,6 +94,7 @@ public class DaemonGroovyCompiler extends AbstractDaemonCompiler<GroovyJavaJoint
             .classpath(classpath)
             .sharedPackages(SHARED_PACKAGES)
             .keepAliveMode(KeepAliveMode.SESSION)
+            .affinityClasspath(affinityClasspath(spec))
             .withClassLoaderStrucuture(classLoaderStructure)
             .build();
     }
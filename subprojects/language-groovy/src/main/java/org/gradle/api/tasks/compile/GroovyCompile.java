@@ -17,12 +17,17 @@
 package org.gradle.api.tasks.compile;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import org.gradle.api.Incubating;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.JavaVersion;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.internal.ClassPathRegistry;
+import org.gradle.api.internal.changedetection.changes.RebuildIncrementalTaskInputs;
 import org.gradle.api.internal.tasks.JavaToolChainFactory;
 import org.gradle.api.internal.tasks.compile.CleaningGroovyCompiler;
 import org.gradle.api.internal.tasks.compile.CompilerForkUtils;
@@ -30,17 +35,24 @@ import org.gradle.api.internal.tasks.compile.DefaultGroovyJavaJointCompileSpec;
 import org.gradle.api.internal.tasks.compile.DefaultGroovyJavaJointCompileSpecFactory;
 import org.gradle.api.internal.tasks.compile.GroovyCompilerFactory;
 import org.gradle.api.internal.tasks.compile.GroovyJavaJointCompileSpec;
+import org.gradle.api.internal.tasks.compile.SourceClassesMappingFile;
+import org.gradle.api.internal.tasks.compile.incremental.IncrementalCompilerFactory;
 import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorDetector;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
 import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.api.tasks.WorkResult;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
+import org.gradle.api.tasks.incremental.InputFileDetails;
 import org.gradle.internal.jvm.inspection.JvmVersionDetector;
 import org.gradle.jvm.toolchain.JavaToolChain;
 import org.gradle.language.base.internal.compile.Compiler;
@@ -52,12 +64,17 @@ import org.gradle.workers.internal.WorkerDaemonFactory;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Compiles Groovy source files, and optionally, Java source files.
  */
 @CacheableTask
 public class GroovyCompile extends AbstractCompile {
+    private static final Logger LOGGER = Logging.getLogger(GroovyCompile.class);
+
     private Compiler<GroovyJavaJointCompileSpec> compiler;
     private FileCollection groovyClasspath;
     private final CompileOptions compileOptions;
@@ -65,19 +82,83 @@ public class GroovyCompile extends AbstractCompile {
 
     public GroovyCompile() {
         CompileOptions compileOptions = getServices().get(ObjectFactory.class).newInstance(CompileOptions.class);
+        // Incremental Groovy compilation is opt-in
+        compileOptions.setIncremental(false);
         this.compileOptions = compileOptions;
         CompilerForkUtils.doNotCacheIfForkingViaExecutable(compileOptions, getOutputs());
     }
 
-    @Override
     @TaskAction
+    protected void compile(IncrementalTaskInputs inputs) {
+        checkGroovyClasspathIsNonEmpty();
+        DefaultGroovyJavaJointCompileSpec spec = createSpec();
+        Compiler<GroovyJavaJointCompileSpec> compiler = getCompiler(spec);
+        if (!compileOptions.isIncremental() || !(compiler instanceof CleaningGroovyCompiler)) {
+            performCompilation(spec, compiler);
+            return;
+        }
+
+        File mappingFile = getSourceClassesMappingFile();
+        Multimap<File, String> previousMapping = ImmutableMultimap.of();
+        if (mappingFile.isFile()) {
+            previousMapping = SourceClassesMappingFile.read(mappingFile);
+        } else if (inputs.isIncremental()) {
+            LOGGER.info("Full recompilation is required because the source classes mapping of the previous compilation is not available.");
+            inputs = new RebuildIncrementalTaskInputs(Collections.<InputFileDetails>emptyList());
+        }
+        // Only keep the mapping once the compilation has succeeded
+        GFileUtils.deleteQuietly(mappingFile);
+
+        File compiledClassesMappingFile = new File(getTemporaryDir(), "compiled-source-classes-mapping.txt");
+        GFileUtils.deleteQuietly(compiledClassesMappingFile);
+        spec.setSourceClassesMappingFile(compiledClassesMappingFile);
+
+        CleaningGroovyCompiler cleaningCompiler = (CleaningGroovyCompiler) compiler;
+        Compiler<GroovyJavaJointCompileSpec> incrementalCompiler = getIncrementalCompilerFactory().makeIncremental(
+            cleaningCompiler,
+            cleaningCompiler.getCompiler(),
+            getPath(),
+            inputs,
+            getSource(),
+            previousMapping
+        );
+        performCompilation(spec, incrementalCompiler);
+
+        SourceClassesMappingFile.write(mappingFile, mergeMapping(previousMapping, compiledClassesMappingFile));
+    }
+
+    @Override
     protected void compile() {
         checkGroovyClasspathIsNonEmpty();
         DefaultGroovyJavaJointCompileSpec spec = createSpec();
-        WorkResult result = getCompiler(spec).execute(spec);
+        performCompilation(spec, getCompiler(spec));
+    }
+
+    private void performCompilation(GroovyJavaJointCompileSpec spec, Compiler<GroovyJavaJointCompileSpec> compiler) {
+        if (spec.getSourceClassesMappingFile() == null) {
+            // A non-incremental compilation makes any recorded mapping stale
+            GFileUtils.deleteQuietly(getSourceClassesMappingFile());
+        }
+        WorkResult result = compiler.execute(spec);
         setDidWork(result.getDidWork());
     }
 
+    /**
+     * Replaces the entries of the previous mapping with those of the source files that have just been compiled, and drops source files that no longer exist.
+     */
+    private static Multimap<File, String> mergeMapping(Multimap<File, String> previousMapping, File compiledClassesMappingFile) {
+        Multimap<File, String> compiledMapping = compiledClassesMappingFile.isFile() ? SourceClassesMappingFile.read(compiledClassesMappingFile) : ImmutableMultimap.<File, String>of();
+        Multimap<File, String> mapping = LinkedHashMultimap.create();
+        for (Map.Entry<File, Collection<String>> entry : previousMapping.asMap().entrySet()) {
+            File sourceFile = entry.getKey();
+            if (!compiledMapping.containsKey(sourceFile) && sourceFile.isFile()) {
+                mapping.putAll(sourceFile, entry.getValue());
+            }
+        }
+        mapping.putAll(compiledMapping);
+        return mapping;
+    }
+
     private Compiler<GroovyJavaJointCompileSpec> getCompiler(GroovyJavaJointCompileSpec spec) {
         if (compiler == null) {
             WorkerDaemonFactory workerDaemonFactory = getServices().get(WorkerDaemonFactory.class);
@@ -193,6 +274,22 @@ public class GroovyCompile extends AbstractCompile {
         this.groovyClasspath = groovyClasspath;
     }
 
+    /**
+     * The file in which the top-level classes declared by each source file are recorded for incremental compilation.
+     *
+     * @since 5.6
+     */
+    @Incubating
+    @LocalState
+    protected File getSourceClassesMappingFile() {
+        return new File(getTemporaryDir(), "source-classes-mapping.txt");
+    }
+
+    @Inject
+    protected IncrementalCompilerFactory getIncrementalCompilerFactory() {
+        throw new UnsupportedOperationException();
+    }
+
     @Internal
     public Compiler<GroovyJavaJointCompileSpec> getCompiler() {
         return getCompiler(createSpec());
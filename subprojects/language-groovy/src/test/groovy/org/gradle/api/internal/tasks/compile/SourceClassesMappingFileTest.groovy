@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile
+
+import com.google.common.collect.LinkedHashMultimap
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class SourceClassesMappingFileTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def "writes and reads mapping"() {
+        def mappingFile = tmpDir.file("mapping/source-classes-mapping.txt")
+        def foo = tmpDir.file("src/Foo.groovy")
+        def bar = tmpDir.file("src/org/Bar.groovy")
+        def mapping = LinkedHashMultimap.create()
+        mapping.put(foo, "Foo")
+        mapping.put(bar, "org.Bar")
+        mapping.put(bar, "org.Helper")
+
+        when:
+        SourceClassesMappingFile.write(mappingFile, mapping)
+
+        then:
+        SourceClassesMappingFile.read(mappingFile) == mapping
+    }
+
+    def "writes empty mapping"() {
+        def mappingFile = tmpDir.file("source-classes-mapping.txt")
+
+        when:
+        SourceClassesMappingFile.write(mappingFile, LinkedHashMultimap.create())
+
+        then:
+        mappingFile.text.isEmpty()
+        SourceClassesMappingFile.read(mappingFile).isEmpty()
+    }
+}
@@ -134,6 +134,66 @@ class AggregatingIncrementalAnnotationProcessingIntegrationTest extends Abstract
         outputs.recompiledFiles("A", "ServiceRegistry", "ServiceRegistryResource.txt", "Dependent")
     }
 
+    def "classes depending on generated file are recompiled when an aggregated type that is not an origin changes"() {
+        given:
+        def processor = writingResourcesTo(StandardLocation.CLASS_OUTPUT.toString())
+        processor.originatingTypes = ["A"]
+        withProcessor(processor)
+        java "@Service class A {}"
+        def b = java "@Service class B {}"
+        java """class Dependent {
+            private ServiceRegistry registry = new ServiceRegistry();
+        }"""
+        java "class Unrelated {}"
+
+        outputs.snapshot { run "compileJava" }
+
+        when:
+        b.text = "@Service class B { public void foo() {} }"
+        run "compileJava"
+
+        then:
+        outputs.recompiledFiles("B", "ServiceRegistry", "ServiceRegistryResource.txt", "Dependent")
+        serviceRegistryReferences("A", "B")
+    }
+
+    def "classes depending on generated file are recompiled when an annotated file is added"() {
+        given:
+        java "@Service class A {}"
+        java """class Dependent {
+            private ServiceRegistry registry = new ServiceRegistry();
+        }"""
+        java "class Unrelated {}"
+
+        outputs.snapshot { run "compileJava" }
+
+        when:
+        java "@Service class B {}"
+        run "compileJava"
+
+        then:
+        outputs.recompiledFiles("B", "ServiceRegistry", "ServiceRegistryResource.txt", "Dependent")
+        serviceRegistryReferences("A", "B")
+    }
+
+    def "classes depending on generated file are not recompiled when an unrelated file changes"() {
+        given:
+        java "@Service class A {}"
+        java """class Dependent {
+            private ServiceRegistry registry = new ServiceRegistry();
+        }"""
+        def unrelated = java "class Unrelated {}"
+
+        outputs.snapshot { run "compileJava" }
+
+        when:
+        unrelated.text = "class Unrelated { public void foo() {} }"
+        run "compileJava"
+
+        then:
+        outputs.recompiledFiles("Unrelated", "ServiceRegistry", "ServiceRegistryResource.txt")
+    }
+
     def "classes files of generated sources are deleted when annotated file is deleted"() {
         given:
         def a = java "@Service class A {}"
@@ -49,6 +49,7 @@ public class DaemonJavaCompiler extends AbstractDaemonCompiler<JavaCompileSpec>
             .javaForkOptions(javaForkOptions)
             .sharedPackages(SHARED_PACKAGES)
             .keepAliveMode(KeepAliveMode.SESSION)
+            .affinityClasspath(affinityClasspath(spec))
             .build();
     }
 }
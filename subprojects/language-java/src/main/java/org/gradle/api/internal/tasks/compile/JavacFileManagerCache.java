@@ -0,0 +1,277 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.gradle.internal.concurrent.CompositeStoppable;
+
+import javax.annotation.Nullable;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps javac file managers alive between compilations in the same process, so that the jars on a
+ * classpath shared by several compile tasks are opened and indexed once instead of once per task.
+ *
+ * <p>A file manager is handed out to a single compilation at a time. Before it is handed out again, the
+ * per-task locations are reset and every jar it has opened so far is checked for changes. A file manager
+ * that has seen a changed jar, or that has opened too many jars, is closed instead of reused.</p>
+ */
+class JavacFileManagerCache {
+    private static final AtomicReference<JavacFileManagerCache> INSTANCE = new AtomicReference<JavacFileManagerCache>();
+
+    private static final int MAX_IDLE_FILE_MANAGERS = 4;
+    private static final int MAX_ARCHIVES_PER_FILE_MANAGER = 2000;
+
+    // Options whose values are applied to the per-task locations reset in Lease.reset()
+    private static final Set<String> PER_TASK_OPTIONS = ImmutableSet.of(
+        "-d", "-s", "-h",
+        "-classpath", "-cp", "--class-path",
+        "-sourcepath", "--source-path",
+        "-processorpath", "--processor-path"
+    );
+    private static final StandardLocation[] PER_TASK_LOCATIONS = {
+        StandardLocation.CLASS_OUTPUT,
+        StandardLocation.SOURCE_OUTPUT,
+        StandardLocation.NATIVE_HEADER_OUTPUT,
+        StandardLocation.CLASS_PATH,
+        StandardLocation.SOURCE_PATH,
+        StandardLocation.ANNOTATION_PROCESSOR_PATH
+    };
+
+    private final LinkedList<Lease> idle = new LinkedList<Lease>();
+
+    public static JavacFileManagerCache current() {
+        JavacFileManagerCache cache = INSTANCE.get();
+        if (cache == null) {
+            INSTANCE.compareAndSet(null, new JavacFileManagerCache());
+            cache = INSTANCE.get();
+        }
+        return cache;
+    }
+
+    /**
+     * Returns a file manager for a compilation with the given options and classpath. The caller must close the
+     * returned lease once the compilation has finished, which makes the file manager available to the next compilation.
+     */
+    public Lease acquire(JavaCompiler compiler, @Nullable Charset charset, List<String> options, @Nullable Iterable<File> classpath) {
+        Key key = new Key(compiler.getClass(), charset, sharedOptions(options));
+        Lease lease = takeIdle(key);
+        if (lease != null && !lease.reset()) {
+            lease.discard();
+            lease = null;
+        }
+        if (lease == null) {
+            lease = new Lease(key, compiler.getStandardFileManager(null, null, charset));
+        }
+        if (classpath != null) {
+            lease.track(classpath);
+        }
+        return lease;
+    }
+
+    private synchronized Lease takeIdle(Key key) {
+        Iterator<Lease> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            Lease lease = iterator.next();
+            if (lease.key.equals(key)) {
+                iterator.remove();
+                return lease;
+            }
+        }
+        return null;
+    }
+
+    private void release(Lease lease) {
+        if (lease.archives.size() > MAX_ARCHIVES_PER_FILE_MANAGER) {
+            lease.discard();
+            return;
+        }
+        Lease evicted = null;
+        synchronized (this) {
+            idle.addFirst(lease);
+            if (idle.size() > MAX_IDLE_FILE_MANAGERS) {
+                evicted = idle.removeLast();
+            }
+        }
+        if (evicted != null) {
+            evicted.discard();
+        }
+    }
+
+    /**
+     * Closes the file managers that are not in use, releasing the jars they have opened.
+     */
+    void closeIdle() {
+        List<Lease> toClose;
+        synchronized (this) {
+            toClose = Lists.newArrayList(idle);
+            idle.clear();
+        }
+        for (Lease lease : toClose) {
+            lease.discard();
+        }
+    }
+
+    synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    private static List<String> sharedOptions(List<String> options) {
+        List<String> shared = Lists.newArrayListWithCapacity(options.size());
+        Iterator<String> iterator = options.iterator();
+        while (iterator.hasNext()) {
+            String option = iterator.next();
+            if (PER_TASK_OPTIONS.contains(option)) {
+                if (iterator.hasNext()) {
+                    iterator.next();
+                }
+            } else {
+                shared.add(option);
+            }
+        }
+        return shared;
+    }
+
+    class Lease implements Closeable {
+        private final Key key;
+        private final StandardJavaFileManager fileManager;
+        private final Map<File, ArchiveState> archives = new HashMap<File, ArchiveState>();
+
+        private Lease(Key key, StandardJavaFileManager fileManager) {
+            this.key = key;
+            this.fileManager = fileManager;
+        }
+
+        public StandardJavaFileManager getFileManager() {
+            return fileManager;
+        }
+
+        private void track(Iterable<File> classpath) {
+            for (File file : classpath) {
+                if (!archives.containsKey(file) && file.isFile()) {
+                    archives.put(file, ArchiveState.of(file));
+                }
+            }
+        }
+
+        private boolean reset() {
+            for (Map.Entry<File, ArchiveState> entry : archives.entrySet()) {
+                if (!entry.getValue().equals(ArchiveState.of(entry.getKey()))) {
+                    return false;
+                }
+            }
+            try {
+                for (StandardLocation location : PER_TASK_LOCATIONS) {
+                    fileManager.setLocation(location, null);
+                }
+                return true;
+            } catch (IOException e) {
+                return false;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private void discard() {
+            CompositeStoppable.stoppable(fileManager).stop();
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+
+    private static class ArchiveState {
+        private final long length;
+        private final long lastModified;
+
+        private ArchiveState(long length, long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        static ArchiveState of(File file) {
+            return new ArchiveState(file.length(), file.lastModified());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ArchiveState that = (ArchiveState) o;
+            return length == that.length && lastModified == that.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (length ^ (length >>> 32)) + (int) (lastModified ^ (lastModified >>> 32));
+        }
+    }
+
+    private static class Key {
+        private final Class<?> compilerType;
+        private final Charset charset;
+        private final List<String> options;
+
+        private Key(Class<?> compilerType, Charset charset, List<String> options) {
+            this.compilerType = compilerType;
+            this.charset = charset;
+            this.options = options;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return compilerType.equals(key.compilerType)
+                && (charset == null ? key.charset == null : charset.equals(key.charset))
+                && options.equals(key.options);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = compilerType.hashCode();
+            result = 31 * result + (charset != null ? charset.hashCode() : 0);
+            result = 31 * result + options.hashCode();
+            return result;
+        }
+    }
+}
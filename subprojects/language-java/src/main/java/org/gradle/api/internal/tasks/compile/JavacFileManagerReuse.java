@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile;
+
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.os.OperatingSystem;
+
+/**
+ * Decides whether javac file managers are kept alive between compilations, and closes the file managers kept idle in the
+ * build process when the build session finishes, so that a daemon does not hold the jars they have opened while it is idle.
+ * File managers kept by a compiler daemon are released when that session scoped daemon stops.
+ */
+public class JavacFileManagerReuse implements Stoppable {
+    public static final String REUSE_FILE_MANAGERS_PROPERTY = "org.gradle.internal.java.compile.reuse-file-managers";
+
+    private final boolean enabled;
+
+    public JavacFileManagerReuse(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static JavacFileManagerReuse fromSystemProperties() {
+        // Jars that are open cannot be replaced or deleted on Windows, so reuse would lock the outputs of other projects in the build
+        return new JavacFileManagerReuse(Boolean.getBoolean(REUSE_FILE_MANAGERS_PROPERTY) && !OperatingSystem.current().isWindows());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void stop() {
+        if (enabled) {
+            JavacFileManagerCache.current().closeIdle();
+        }
+    }
+}
@@ -28,6 +28,7 @@ import javax.inject.Inject;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
+import java.io.Closeable;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.util.Iterator;
@@ -37,10 +38,19 @@ import java.util.Set;
 public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable {
     private static final Logger LOGGER = LoggerFactory.getLogger(JdkJavaCompiler.class);
     private final Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory;
+    private final boolean reuseFileManagers;
 
-    @Inject
     public JdkJavaCompiler(Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory) {
+        this(javaHomeBasedJavaCompilerFactory, false);
+    }
+
+    /**
+     * @param reuseFileManagers whether to keep javac file managers, and the classpath jars they have opened, alive between compilations in this process.
+     */
+    @Inject
+    public JdkJavaCompiler(Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory, boolean reuseFileManagers) {
         this.javaHomeBasedJavaCompilerFactory = javaHomeBasedJavaCompilerFactory;
+        this.reuseFileManagers = reuseFileManagers;
     }
 
     @Override
@@ -60,7 +70,18 @@ public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable
         List<String> options = new JavaCompilerArgumentsBuilder(spec).build();
         JavaCompiler compiler = javaHomeBasedJavaCompilerFactory.create();
         MinimalJavaCompileOptions compileOptions = spec.getCompileOptions();
-        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null);
+        Charset charset = compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null;
+        StandardJavaFileManager standardFileManager;
+        Closeable resources;
+        // Older compilers share an internal zip cache between file managers, which is cleared after each compilation
+        if (reuseFileManagers && JavaVersion.current().isJava9Compatible()) {
+            JavacFileManagerCache.Lease lease = JavacFileManagerCache.current().acquire(compiler, charset, options, spec.getCompileClasspath());
+            standardFileManager = lease.getFileManager();
+            resources = lease;
+        } else {
+            standardFileManager = compiler.getStandardFileManager(null, null, charset);
+            resources = standardFileManager;
+        }
         Iterable<? extends JavaFileObject> compilationUnits = standardFileManager.getJavaFileObjectsFromFiles(spec.getSourceFiles());
         StandardJavaFileManager fileManager = standardFileManager;
         if (JavaVersion.current().isJava9Compatible() && emptySourcepathIn(options)) {
@@ -70,7 +91,7 @@ public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable
 
         Set<AnnotationProcessorDeclaration> annotationProcessors = spec.getEffectiveAnnotationProcessors();
         task = new AnnotationProcessingCompileTask(task, annotationProcessors, spec.getAnnotationProcessorPath(), result.getAnnotationProcessingResult());
-        task = new ResourceCleaningCompilationTask(task, fileManager);
+        task = new ResourceCleaningCompilationTask(task, resources);
         return task;
     }
 
@@ -25,6 +25,7 @@ import org.gradle.api.internal.file.FileOperations;
 import org.gradle.api.internal.tasks.compile.JavaCompileSpec;
 import org.gradle.api.internal.tasks.compile.incremental.processing.GeneratedResource;
 import org.gradle.api.internal.tasks.compile.incremental.recomp.RecompilationSpec;
+import org.gradle.api.internal.tasks.compile.incremental.recomp.SourceToNameConverter;
 import org.gradle.api.tasks.util.PatternSet;
 import org.gradle.internal.Factory;
 import org.gradle.language.base.internal.tasks.SimpleStaleClassCleaner;
@@ -40,10 +41,12 @@ import java.util.Set;
 class IncrementalCompilationInitializer {
     private final FileOperations fileOperations;
     private final FileTree sourceTree;
+    private final SourceToNameConverter sourceToNameConverter;
 
-    public IncrementalCompilationInitializer(FileOperations fileOperations, FileTree sourceTree) {
+    public IncrementalCompilationInitializer(FileOperations fileOperations, FileTree sourceTree, SourceToNameConverter sourceToNameConverter) {
         this.fileOperations = fileOperations;
         this.sourceTree = sourceTree;
+        this.sourceToNameConverter = sourceToNameConverter;
     }
 
     public void initializeCompilation(JavaCompileSpec spec, RecompilationSpec recompilationSpec) {
@@ -111,6 +114,11 @@ class IncrementalCompilationInitializer {
 
             sourceToCompile.include(path.concat(".java"));
             sourceToCompile.include(path.concat("$*.java"));
+            sourceToCompile.include(path.concat(".groovy"));
+            String declaringSourcePath = sourceToNameConverter.getDeclaringSourcePath(staleClass);
+            if (declaringSourcePath != null) {
+                sourceToCompile.include(declaringSourcePath);
+            }
         }
     }
 
@@ -17,7 +17,6 @@
 package org.gradle.api.internal.tasks.compile.incremental;
 
 import org.gradle.api.internal.cache.StringInterner;
-import org.gradle.api.internal.tasks.compile.CleaningJavaCompiler;
 import org.gradle.api.internal.tasks.compile.JavaCompileSpec;
 import org.gradle.api.internal.tasks.compile.incremental.cache.TaskScopedCompileCaches;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.ClasspathSnapshotMaker;
@@ -34,27 +33,27 @@ import org.slf4j.LoggerFactory;
 /**
  * Decorates a non-incremental Java compiler (like javac) so that it can be invoked incrementally.
  */
-public class IncrementalCompilerDecorator {
+public class IncrementalCompilerDecorator<T extends JavaCompileSpec> {
 
     private static final Logger LOG = LoggerFactory.getLogger(IncrementalCompilerDecorator.class);
     private final ClasspathSnapshotMaker classpathSnapshotMaker;
     private final TaskScopedCompileCaches compileCaches;
-    private final CleaningJavaCompiler cleaningCompiler;
+    private final Compiler<? super T> compiler;
     private final RecompilationSpecProvider staleClassDetector;
     private final CompilationSourceDirs sourceDirs;
-    private final Compiler<JavaCompileSpec> rebuildAllCompiler;
+    private final Compiler<T> rebuildAllCompiler;
     private final IncrementalCompilationInitializer compilationInitializer;
     private final PreviousCompilationOutputAnalyzer previousCompilationOutputAnalyzer;
     private StringInterner interner;
 
     public IncrementalCompilerDecorator(ClasspathSnapshotMaker classpathSnapshotMaker, TaskScopedCompileCaches compileCaches,
-                                        IncrementalCompilationInitializer compilationInitializer, CleaningJavaCompiler cleaningCompiler,
+                                        IncrementalCompilationInitializer compilationInitializer, Compiler<? super T> compiler,
                                         RecompilationSpecProvider staleClassDetector,
-                                        CompilationSourceDirs sourceDirs, Compiler<JavaCompileSpec> rebuildAllCompiler, PreviousCompilationOutputAnalyzer previousCompilationOutputAnalyzer, StringInterner interner) {
+                                        CompilationSourceDirs sourceDirs, Compiler<T> rebuildAllCompiler, PreviousCompilationOutputAnalyzer previousCompilationOutputAnalyzer, StringInterner interner) {
         this.classpathSnapshotMaker = classpathSnapshotMaker;
         this.compileCaches = compileCaches;
         this.compilationInitializer = compilationInitializer;
-        this.cleaningCompiler = cleaningCompiler;
+        this.compiler = compiler;
         this.staleClassDetector = staleClassDetector;
         this.sourceDirs = sourceDirs;
         this.rebuildAllCompiler = rebuildAllCompiler;
@@ -62,12 +61,12 @@ public class IncrementalCompilerDecorator {
         this.interner = interner;
     }
 
-    public Compiler<JavaCompileSpec> prepareCompiler(IncrementalTaskInputs inputs) {
-        Compiler<JavaCompileSpec> compiler = getCompiler(inputs, sourceDirs);
-        return new IncrementalResultStoringCompiler(compiler, classpathSnapshotMaker, compileCaches.getPreviousCompilationStore(), interner);
+    public Compiler<T> prepareCompiler(IncrementalTaskInputs inputs) {
+        Compiler<T> compiler = getCompiler(inputs, sourceDirs);
+        return new IncrementalResultStoringCompiler<T>(compiler, classpathSnapshotMaker, compileCaches.getPreviousCompilationStore(), interner);
     }
 
-    private Compiler<JavaCompileSpec> getCompiler(IncrementalTaskInputs inputs, CompilationSourceDirs sourceDirs) {
+    private Compiler<T> getCompiler(IncrementalTaskInputs inputs, CompilationSourceDirs sourceDirs) {
         if (!inputs.isIncremental()) {
             LOG.info("Full recompilation is required because no incremental change information is available. This is usually caused by clean builds or changing compiler arguments.");
             return rebuildAllCompiler;
@@ -83,6 +82,6 @@ public class IncrementalCompilerDecorator {
         }
 
         PreviousCompilation previousCompilation = new PreviousCompilation(data, compileCaches.getClasspathEntrySnapshotCache(), previousCompilationOutputAnalyzer);
-        return new SelectiveCompiler(inputs, previousCompilation, cleaningCompiler, rebuildAllCompiler, staleClassDetector, compilationInitializer, classpathSnapshotMaker);
+        return new SelectiveCompiler<T>(inputs, previousCompilation, compiler, rebuildAllCompiler, staleClassDetector, compilationInitializer, classpathSnapshotMaker);
     }
 }
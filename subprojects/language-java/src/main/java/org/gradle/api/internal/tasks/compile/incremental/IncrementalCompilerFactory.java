@@ -16,6 +16,8 @@
 
 package org.gradle.api.internal.tasks.compile.incremental;
 
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.file.FileOperations;
@@ -44,8 +46,11 @@ import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.StreamHasher;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.snapshot.FileSystemSnapshotter;
+import org.gradle.internal.snapshot.WellKnownFileLocations;
 import org.gradle.language.base.internal.compile.Compiler;
 
+import java.io.File;
+
 public class IncrementalCompilerFactory {
 
     private final FileOperations fileOperations;
@@ -55,8 +60,9 @@ public class IncrementalCompilerFactory {
     private final StringInterner interner;
     private final FileSystemSnapshotter fileSystemSnapshotter;
     private final FileHasher fileHasher;
+    private final WellKnownFileLocations fileLocations;
 
-    public IncrementalCompilerFactory(FileOperations fileOperations, StreamHasher streamHasher, GeneralCompileCaches generalCompileCaches, BuildOperationExecutor buildOperationExecutor, StringInterner interner, FileSystemSnapshotter fileSystemSnapshotter, FileHasher fileHasher) {
+    public IncrementalCompilerFactory(FileOperations fileOperations, StreamHasher streamHasher, GeneralCompileCaches generalCompileCaches, BuildOperationExecutor buildOperationExecutor, StringInterner interner, FileSystemSnapshotter fileSystemSnapshotter, FileHasher fileHasher, WellKnownFileLocations fileLocations) {
         this.fileOperations = fileOperations;
         this.streamHasher = streamHasher;
         this.generalCompileCaches = generalCompileCaches;
@@ -64,20 +70,33 @@ public class IncrementalCompilerFactory {
         this.interner = interner;
         this.fileSystemSnapshotter = fileSystemSnapshotter;
         this.fileHasher = fileHasher;
+        this.fileLocations = fileLocations;
     }
 
     public Compiler<JavaCompileSpec> makeIncremental(CleaningJavaCompiler cleaningJavaCompiler, String taskPath, IncrementalTaskInputs inputs, FileTree sources) {
+        return makeIncremental(cleaningJavaCompiler, cleaningJavaCompiler.getCompiler(), taskPath, inputs, sources, ImmutableMultimap.<File, String>of());
+    }
+
+    /**
+     * Makes a compiler for Java or Java-like sources incremental.
+     *
+     * @param cleaningCompiler the compiler used for full recompilations, which deletes all previous output first
+     * @param compiler the compiler used for incremental recompilations
+     * @param declaredClasses the top-level classes each source file declared in the previous compilation, if the compiler reports them
+     */
+    public <T extends JavaCompileSpec> Compiler<T> makeIncremental(Compiler<T> cleaningCompiler, Compiler<? super T> compiler, String taskPath, IncrementalTaskInputs inputs, FileTree sources, Multimap<File, String> declaredClasses) {
         TaskScopedCompileCaches compileCaches = createCompileCaches(taskPath);
-        Compiler<JavaCompileSpec> rebuildAllCompiler = createRebuildAllCompiler(cleaningJavaCompiler, sources);
+        Compiler<T> rebuildAllCompiler = createRebuildAllCompiler(cleaningCompiler, sources);
         ClassDependenciesAnalyzer analyzer = new CachingClassDependenciesAnalyzer(new DefaultClassDependenciesAnalyzer(interner), compileCaches.getClassAnalysisCache());
-        ClasspathEntrySnapshotter classpathEntrySnapshotter = new CachingClasspathEntrySnapshotter(fileHasher, streamHasher, fileSystemSnapshotter, analyzer, compileCaches.getClasspathEntrySnapshotCache(), fileOperations);
+        ClassDependenciesAnalyzer immutableAnalyzer = new CachingClassDependenciesAnalyzer(new DefaultClassDependenciesAnalyzer(interner), compileCaches.getImmutableClassAnalysisCache());
+        ClasspathEntrySnapshotter classpathEntrySnapshotter = new CachingClasspathEntrySnapshotter(fileHasher, streamHasher, fileSystemSnapshotter, analyzer, immutableAnalyzer, fileLocations, compileCaches.getClasspathEntrySnapshotCache(), fileOperations);
         ClasspathSnapshotMaker classpathSnapshotMaker = new ClasspathSnapshotMaker(new ClasspathSnapshotFactory(classpathEntrySnapshotter, buildOperationExecutor));
         CompilationSourceDirs sourceDirs = new CompilationSourceDirs((FileTreeInternal) sources);
-        SourceToNameConverter sourceToNameConverter = new SourceToNameConverter(sourceDirs);
+        SourceToNameConverter sourceToNameConverter = new SourceToNameConverter(sourceDirs, declaredClasses);
         RecompilationSpecProvider recompilationSpecProvider = new RecompilationSpecProvider(sourceToNameConverter);
-        IncrementalCompilationInitializer compilationInitializer = new IncrementalCompilationInitializer(fileOperations, sources);
-        PreviousCompilationOutputAnalyzer previousCompilationOutputAnalyzer = new PreviousCompilationOutputAnalyzer(fileHasher, streamHasher, analyzer, fileOperations);
-        IncrementalCompilerDecorator incrementalSupport = new IncrementalCompilerDecorator(classpathSnapshotMaker, compileCaches, compilationInitializer, cleaningJavaCompiler, recompilationSpecProvider, sourceDirs, rebuildAllCompiler, previousCompilationOutputAnalyzer, interner);
+        IncrementalCompilationInitializer compilationInitializer = new IncrementalCompilationInitializer(fileOperations, sources, sourceToNameConverter);
+        PreviousCompilationOutputAnalyzer previousCompilationOutputAnalyzer = new PreviousCompilationOutputAnalyzer(fileHasher, streamHasher, analyzer, fileOperations, buildOperationExecutor);
+        IncrementalCompilerDecorator<T> incrementalSupport = new IncrementalCompilerDecorator<T>(classpathSnapshotMaker, compileCaches, compilationInitializer, compiler, recompilationSpecProvider, sourceDirs, rebuildAllCompiler, previousCompilationOutputAnalyzer, interner);
         return incrementalSupport.prepareCompiler(inputs);
     }
 
@@ -89,6 +108,11 @@ public class IncrementalCompilerFactory {
                 return generalCompileCaches.getClassAnalysisCache();
             }
 
+            @Override
+            public ClassAnalysisCache getImmutableClassAnalysisCache() {
+                return generalCompileCaches.getImmutableClassAnalysisCache();
+            }
+
             @Override
             public ClasspathEntrySnapshotCache getClasspathEntrySnapshotCache() {
                 return generalCompileCaches.getClasspathEntrySnapshotCache();
@@ -102,12 +126,12 @@ public class IncrementalCompilerFactory {
         };
     }
 
-    private Compiler<JavaCompileSpec> createRebuildAllCompiler(final CleaningJavaCompiler cleaningJavaCompiler, final FileTree sourceFiles) {
-        return new Compiler<JavaCompileSpec>() {
+    private <T extends JavaCompileSpec> Compiler<T> createRebuildAllCompiler(final Compiler<T> cleaningCompiler, final FileTree sourceFiles) {
+        return new Compiler<T>() {
             @Override
-            public WorkResult execute(JavaCompileSpec spec) {
+            public WorkResult execute(T spec) {
                 spec.setSourceFiles(sourceFiles);
-                return cleaningJavaCompiler.execute(spec);
+                return cleaningCompiler.execute(spec);
             }
         };
     }
@@ -17,7 +17,6 @@
 package org.gradle.api.internal.tasks.compile.incremental;
 
 import com.google.common.collect.Iterables;
-import org.gradle.api.internal.tasks.compile.CleaningJavaCompiler;
 import org.gradle.api.internal.tasks.compile.JavaCompileSpec;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.ClasspathSnapshotProvider;
 import org.gradle.api.internal.tasks.compile.incremental.recomp.CurrentCompilation;
@@ -34,21 +33,21 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 
-class SelectiveCompiler implements org.gradle.language.base.internal.compile.Compiler<JavaCompileSpec> {
+class SelectiveCompiler<T extends JavaCompileSpec> implements org.gradle.language.base.internal.compile.Compiler<T> {
     private static final Logger LOG = LoggerFactory.getLogger(SelectiveCompiler.class);
     private final IncrementalTaskInputs inputs;
     private final PreviousCompilation previousCompilation;
-    private final CleaningJavaCompiler cleaningCompiler;
-    private final Compiler<JavaCompileSpec> rebuildAllCompiler;
+    private final Compiler<? super T> compiler;
+    private final Compiler<T> rebuildAllCompiler;
     private final RecompilationSpecProvider recompilationSpecProvider;
     private final IncrementalCompilationInitializer incrementalCompilationInitializer;
     private final ClasspathSnapshotProvider classpathSnapshotProvider;
 
-    public SelectiveCompiler(IncrementalTaskInputs inputs, PreviousCompilation previousCompilation, CleaningJavaCompiler cleaningCompiler,
-                             Compiler<JavaCompileSpec> rebuildAllCompiler, RecompilationSpecProvider recompilationSpecProvider, IncrementalCompilationInitializer compilationInitializer, ClasspathSnapshotProvider classpathSnapshotProvider) {
+    public SelectiveCompiler(IncrementalTaskInputs inputs, PreviousCompilation previousCompilation, Compiler<? super T> compiler,
+                             Compiler<T> rebuildAllCompiler, RecompilationSpecProvider recompilationSpecProvider, IncrementalCompilationInitializer compilationInitializer, ClasspathSnapshotProvider classpathSnapshotProvider) {
         this.inputs = inputs;
         this.previousCompilation = previousCompilation;
-        this.cleaningCompiler = cleaningCompiler;
+        this.compiler = compiler;
         this.rebuildAllCompiler = rebuildAllCompiler;
         this.recompilationSpecProvider = recompilationSpecProvider;
         this.incrementalCompilationInitializer = compilationInitializer;
@@ -56,7 +55,7 @@ class SelectiveCompiler implements org.gradle.language.base.internal.compile.Com
     }
 
     @Override
-    public WorkResult execute(JavaCompileSpec spec) {
+    public WorkResult execute(T spec) {
         Timer clock = Time.startTimer();
         CurrentCompilation currentCompilation = new CurrentCompilation(inputs, spec, classpathSnapshotProvider);
 
@@ -75,7 +74,7 @@ class SelectiveCompiler implements org.gradle.language.base.internal.compile.Com
         }
 
         try {
-            return cleaningCompiler.getCompiler().execute(spec);
+            return compiler.execute(spec);
         } finally {
             Collection<String> classesToCompile = recompilationSpec.getClassesToCompile();
             LOG.info("Incremental compilation of {} classes completed in {}.", classesToCompile.size(), clock.getElapsed());
@@ -21,7 +21,9 @@ import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis;
 import org.gradle.internal.serialize.AbstractSerializer;
 import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.HashCodeSerializer;
 import org.gradle.internal.serialize.IntSetSerializer;
 import org.gradle.internal.serialize.InterningStringSerializer;
 import org.gradle.internal.serialize.SetSerializer;
@@ -32,6 +34,7 @@ public class ClassAnalysisSerializer extends AbstractSerializer<ClassAnalysis> {
 
     private final StringInterner interner;
     private final SetSerializer<String> stringSetSerializer;
+    private final HashCodeSerializer hashCodeSerializer = new HashCodeSerializer();
 
     public ClassAnalysisSerializer(StringInterner interner) {
         stringSetSerializer = new SetSerializer<String>(new InterningStringSerializer(interner), false);
@@ -44,7 +47,8 @@ public class ClassAnalysisSerializer extends AbstractSerializer<ClassAnalysis> {
         boolean relatedToAll = decoder.readBoolean();
         Set<String> classes = stringSetSerializer.read(decoder);
         IntSet constants = IntSetSerializer.INSTANCE.read(decoder);
-        return new ClassAnalysis(className, classes, relatedToAll, constants);
+        HashCode abiHash = decoder.readBoolean() ? hashCodeSerializer.read(decoder) : null;
+        return new ClassAnalysis(className, classes, relatedToAll, constants, abiHash);
     }
 
     @Override
@@ -53,6 +57,10 @@ public class ClassAnalysisSerializer extends AbstractSerializer<ClassAnalysis> {
         encoder.writeBoolean(value.isDependencyToAll());
         stringSetSerializer.write(encoder, value.getClassDependencies());
         IntSetSerializer.INSTANCE.write(encoder, value.getConstants());
+        encoder.writeBoolean(value.getAbiHash() != null);
+        if (value.getAbiHash() != null) {
+            hashCodeSerializer.write(encoder, value.getAbiHash());
+        }
     }
 
 }
@@ -19,15 +19,22 @@ package org.gradle.api.internal.tasks.compile.incremental.analyzer;
 import com.google.common.io.ByteStreams;
 import org.gradle.api.file.FileTreeElement;
 import org.gradle.api.internal.cache.StringInterner;
+import org.gradle.api.internal.tasks.compile.ApiClassExtractor;
 import org.gradle.api.internal.tasks.compile.incremental.asm.ClassDependenciesVisitor;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
 import org.objectweb.asm.ClassReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 
 public class DefaultClassDependenciesAnalyzer implements ClassDependenciesAnalyzer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultClassDependenciesAnalyzer.class);
 
     private final StringInterner interner;
 
@@ -36,9 +43,29 @@ public class DefaultClassDependenciesAnalyzer implements ClassDependenciesAnalyz
     }
 
     public ClassAnalysis getClassAnalysis(InputStream input) throws IOException {
-        ClassReader reader = new ClassReader(ByteStreams.toByteArray(input));
+        byte[] classBytes = ByteStreams.toByteArray(input);
+        ClassReader reader = new ClassReader(classBytes);
         String className = reader.getClassName().replace("/", ".");
-        return ClassDependenciesVisitor.analyze(className, reader, interner);
+        ClassAnalysis analysis = ClassDependenciesVisitor.analyze(className, reader, interner);
+        return new ClassAnalysis(analysis.getClassName(), analysis.getClassDependencies(), analysis.isDependencyToAll(), analysis.getConstants(), getAbiHash(reader, classBytes));
+    }
+
+    /**
+     * Uses the same ABI extraction as compile classpath normalization, so that classpath changes that do not change the up-to-date state of a compilation do not cause recompilation either.
+     */
+    @Nullable
+    private static HashCode getAbiHash(ClassReader reader, byte[] classBytes) {
+        try {
+            ApiClassExtractor extractor = new ApiClassExtractor(Collections.<String>emptySet());
+            if (!extractor.shouldExtractApiClassFrom(reader)) {
+                return null;
+            }
+            byte[] abi = extractor.extractApiClassFrom(reader);
+            return abi == null ? null : Hashing.hashBytes(abi);
+        } catch (Exception e) {
+            LOGGER.debug("Could not extract the ABI of class {}. Falling back to the hash of the full class file.", reader.getClassName(), e);
+            return Hashing.hashBytes(classBytes);
+        }
     }
 
     @Override
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.cache;
+
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassAnalysisCache;
+import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis;
+import org.gradle.internal.Factory;
+import org.gradle.internal.hash.HashCode;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the requests made to a {@link ClassAnalysisCache} and how many of them missed, so that the hit rate can be reported.
+ */
+class CountingClassAnalysisCache implements ClassAnalysisCache {
+    private final ClassAnalysisCache delegate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    CountingClassAnalysisCache(ClassAnalysisCache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ClassAnalysis get(HashCode key, final Factory<ClassAnalysis> factory) {
+        requests.incrementAndGet();
+        return delegate.get(key, new Factory<ClassAnalysis>() {
+            @Override
+            public ClassAnalysis create() {
+                misses.incrementAndGet();
+                return factory.create();
+            }
+        });
+    }
+
+    long getRequestCount() {
+        return requests.get();
+    }
+
+    long getMissCount() {
+        return misses.get();
+    }
+}
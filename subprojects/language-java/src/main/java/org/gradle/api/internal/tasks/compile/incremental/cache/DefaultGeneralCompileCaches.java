@@ -29,6 +29,8 @@ import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis;
 import org.gradle.api.internal.tasks.compile.incremental.recomp.PreviousCompilationData;
 import org.gradle.api.internal.tasks.compile.incremental.recomp.PreviousCompilationStore;
 import org.gradle.api.invocation.Gradle;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.FileLockManager;
 import org.gradle.cache.PersistentCache;
@@ -45,7 +47,10 @@ import java.io.Closeable;
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
 public class DefaultGeneralCompileCaches implements GeneralCompileCaches, Closeable {
-    private final ClassAnalysisCache classAnalysisCache;
+    private static final Logger LOGGER = Logging.getLogger(DefaultGeneralCompileCaches.class);
+
+    private final CountingClassAnalysisCache classAnalysisCache;
+    private final CountingClassAnalysisCache immutableClassAnalysisCache;
     private final ClasspathEntrySnapshotCache classpathEntrySnapshotCache;
     private final PersistentCache cache;
     private final PersistentIndexedCache<String, PreviousCompilationData> previousCompilationCache;
@@ -58,7 +63,8 @@ public class DefaultGeneralCompileCaches implements GeneralCompileCaches, Closea
             .open();
         PersistentIndexedCacheParameters<HashCode, ClassAnalysis> classCacheParameters = PersistentIndexedCacheParameters.of("classAnalysis", new HashCodeSerializer(), new ClassAnalysisSerializer(interner))
             .withCacheDecorator(inMemoryCacheDecoratorFactory.decorator(400000, true));
-        this.classAnalysisCache = new DefaultClassAnalysisCache(cache.createCache(classCacheParameters));
+        this.classAnalysisCache = new CountingClassAnalysisCache(new DefaultClassAnalysisCache(cache.createCache(classCacheParameters)));
+        this.immutableClassAnalysisCache = new CountingClassAnalysisCache(userHomeScopedCompileCaches.getClassAnalysisCache());
 
         PersistentIndexedCacheParameters<HashCode, ClasspathEntrySnapshotData> jarCacheParameters = PersistentIndexedCacheParameters.of("jarAnalysis", new HashCodeSerializer(), new ClasspathEntrySnapshotDataSerializer(interner))
             .withCacheDecorator(inMemoryCacheDecoratorFactory.decorator(20000, true));
@@ -71,6 +77,7 @@ public class DefaultGeneralCompileCaches implements GeneralCompileCaches, Closea
 
     @Override
     public void close() {
+        reportStatistics();
         cache.close();
     }
 
@@ -79,6 +86,11 @@ public class DefaultGeneralCompileCaches implements GeneralCompileCaches, Closea
         return classAnalysisCache;
     }
 
+    @Override
+    public ClassAnalysisCache getImmutableClassAnalysisCache() {
+        return immutableClassAnalysisCache;
+    }
+
     @Override
     public ClasspathEntrySnapshotCache getClasspathEntrySnapshotCache() {
         return classpathEntrySnapshotCache;
@@ -88,4 +100,12 @@ public class DefaultGeneralCompileCaches implements GeneralCompileCaches, Closea
     public PreviousCompilationStore createPreviousCompilationStore(String taskPath) {
         return new PreviousCompilationStore(taskPath, previousCompilationCache);
     }
+
+    private void reportStatistics() {
+        long requestCount = classAnalysisCache.getRequestCount() + immutableClassAnalysisCache.getRequestCount();
+        if (requestCount > 0) {
+            long missCount = classAnalysisCache.getMissCount() + immutableClassAnalysisCache.getMissCount();
+            LOGGER.info("Class analysis cache: {} requests, {} hits, {} misses ({}% hit rate)", requestCount, requestCount - missCount, missCount, 100 * (requestCount - missCount) / requestCount);
+        }
+    }
 }
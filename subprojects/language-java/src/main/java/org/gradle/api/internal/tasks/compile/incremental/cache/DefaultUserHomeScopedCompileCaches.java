@@ -17,10 +17,14 @@
 package org.gradle.api.internal.tasks.compile.incremental.cache;
 
 import org.gradle.api.internal.cache.StringInterner;
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassAnalysisCache;
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassAnalysisSerializer;
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.DefaultClassAnalysisCache;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.ClasspathEntrySnapshotCache;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.ClasspathEntrySnapshotData;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.ClasspathEntrySnapshotDataSerializer;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.DefaultClasspathEntrySnapshotCache;
+import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.FileLockManager;
 import org.gradle.cache.PersistentCache;
@@ -35,6 +39,7 @@ import java.io.Closeable;
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
 public class DefaultUserHomeScopedCompileCaches implements UserHomeScopedCompileCaches, Closeable {
+    private final ClassAnalysisCache classAnalysisCache;
     private final ClasspathEntrySnapshotCache classpathEntrySnapshotCache;
     private final PersistentCache cache;
 
@@ -44,6 +49,10 @@ public class DefaultUserHomeScopedCompileCaches implements UserHomeScopedCompile
             .withDisplayName("Java compile cache")
             .withLockOptions(mode(FileLockManager.LockMode.None)) // Lock on demand
             .open();
+        PersistentIndexedCacheParameters<HashCode, ClassAnalysis> classCacheParameters = PersistentIndexedCacheParameters.of("classAnalysis", new HashCodeSerializer(), new ClassAnalysisSerializer(interner))
+            .withCacheDecorator(inMemoryCacheDecoratorFactory.decorator(400000, true));
+        this.classAnalysisCache = new DefaultClassAnalysisCache(cache.createCache(classCacheParameters));
+
         PersistentIndexedCacheParameters<HashCode, ClasspathEntrySnapshotData> jarCacheParameters = PersistentIndexedCacheParameters.of("jarAnalysis", new HashCodeSerializer(), new ClasspathEntrySnapshotDataSerializer(interner))
             .withCacheDecorator(inMemoryCacheDecoratorFactory.decorator(20000, true));
         this.classpathEntrySnapshotCache = new DefaultClasspathEntrySnapshotCache(fileSystemSnapshotter, cache.createCache(jarCacheParameters));
@@ -54,6 +63,11 @@ public class DefaultUserHomeScopedCompileCaches implements UserHomeScopedCompile
         cache.close();
     }
 
+    @Override
+    public ClassAnalysisCache getClassAnalysisCache() {
+        return classAnalysisCache;
+    }
+
     @Override
     public ClasspathEntrySnapshotCache getClasspathEntrySnapshotCache() {
         return classpathEntrySnapshotCache;
@@ -29,6 +29,11 @@ import org.gradle.api.internal.tasks.compile.incremental.recomp.PreviousCompilat
 public interface GeneralCompileCaches {
     ClassAnalysisCache getClassAnalysisCache();
 
+    /**
+     * Returns the cache for class files from immutable locations, which is shared by all builds using the same Gradle user home.
+     */
+    ClassAnalysisCache getImmutableClassAnalysisCache();
+
     ClasspathEntrySnapshotCache getClasspathEntrySnapshotCache();
 
     PreviousCompilationStore createPreviousCompilationStore(String taskPath);
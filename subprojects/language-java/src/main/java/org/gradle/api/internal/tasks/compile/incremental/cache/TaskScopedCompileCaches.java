@@ -23,6 +23,8 @@ import org.gradle.api.internal.tasks.compile.incremental.recomp.PreviousCompilat
 public interface TaskScopedCompileCaches {
     ClassAnalysisCache getClassAnalysisCache();
 
+    ClassAnalysisCache getImmutableClassAnalysisCache();
+
     ClasspathEntrySnapshotCache getClasspathEntrySnapshotCache();
 
     PreviousCompilationStore getPreviousCompilationStore();
@@ -16,8 +16,14 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.cache;
 
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassAnalysisCache;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.ClasspathEntrySnapshotCache;
 
 public interface UserHomeScopedCompileCaches {
+    /**
+     * Returns the class analysis cache for class files from immutable locations. Analyses of other class files are kept in the build scoped cache.
+     */
+    ClassAnalysisCache getClassAnalysisCache();
+
     ClasspathEntrySnapshotCache getClasspathEntrySnapshotCache();
 }
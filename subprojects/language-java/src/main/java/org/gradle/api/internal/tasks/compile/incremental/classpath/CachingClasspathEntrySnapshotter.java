@@ -23,17 +23,26 @@ import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.StreamHasher;
 import org.gradle.internal.snapshot.FileSystemSnapshotter;
+import org.gradle.internal.snapshot.WellKnownFileLocations;
 
 import java.io.File;
 
+/**
+ * Snapshots classpath entries through the given cache. The classes of entries that are known to be immutable are analyzed
+ * with the immutable analyzer, whose cache is shared across builds; the classes of all other entries with the build scoped one.
+ */
 public class CachingClasspathEntrySnapshotter implements ClasspathEntrySnapshotter {
 
     private final DefaultClasspathEntrySnapshotter snapshotter;
+    private final DefaultClasspathEntrySnapshotter immutableSnapshotter;
+    private final WellKnownFileLocations fileLocations;
     private final FileSystemSnapshotter fileSystemSnapshotter;
     private final ClasspathEntrySnapshotCache cache;
 
-    public CachingClasspathEntrySnapshotter(FileHasher fileHasher, StreamHasher streamHasher, FileSystemSnapshotter fileSystemSnapshotter, ClassDependenciesAnalyzer analyzer, ClasspathEntrySnapshotCache cache, FileOperations fileOperations) {
+    public CachingClasspathEntrySnapshotter(FileHasher fileHasher, StreamHasher streamHasher, FileSystemSnapshotter fileSystemSnapshotter, ClassDependenciesAnalyzer analyzer, ClassDependenciesAnalyzer immutableAnalyzer, WellKnownFileLocations fileLocations, ClasspathEntrySnapshotCache cache, FileOperations fileOperations) {
         this.snapshotter = new DefaultClasspathEntrySnapshotter(fileHasher, streamHasher, analyzer, fileOperations);
+        this.immutableSnapshotter = new DefaultClasspathEntrySnapshotter(fileHasher, streamHasher, immutableAnalyzer, fileOperations);
+        this.fileLocations = fileLocations;
         this.fileSystemSnapshotter = fileSystemSnapshotter;
         this.cache = cache;
     }
@@ -43,6 +52,9 @@ public class CachingClasspathEntrySnapshotter implements ClasspathEntrySnapshott
         final HashCode hash = getHash(classpathEntry);
         return cache.get(classpathEntry, new Factory<ClasspathEntrySnapshot>() {
             public ClasspathEntrySnapshot create() {
+                if (fileLocations.isImmutable(classpathEntry.getPath())) {
+                    return immutableSnapshotter.createSnapshot(hash, classpathEntry);
+                }
                 return snapshotter.createSnapshot(hash, classpathEntry);
             }
         });
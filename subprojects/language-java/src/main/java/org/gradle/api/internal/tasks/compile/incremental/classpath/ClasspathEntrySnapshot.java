@@ -81,13 +81,26 @@ public class ClasspathEntrySnapshot {
             String otherClassName = otherClass.getKey();
             HashCode otherClassBytes = otherClass.getValue();
             HashCode thisClsBytes = getHashes().get(otherClassName);
-            if (thisClsBytes == null || !thisClsBytes.equals(otherClassBytes)) {
+            if (thisClsBytes == null || !thisClsBytes.equals(otherClassBytes) && isAbiModifiedSince(other, otherClassName)) {
                 modified.add(otherClassName);
             }
         }
         return modified;
     }
 
+    /**
+     * Changes to a class that do not change its ABI, like changes to method bodies or private members, do not affect the classes compiled against it.
+     */
+    private boolean isAbiModifiedSince(ClasspathEntrySnapshot other, String className) {
+        HashCode thisAbiHash = data.getAbiHashes().get(className);
+        HashCode otherAbiHash = other.getData().getAbiHashes().get(className);
+        if (thisAbiHash == null) {
+            // Classes without ABI, like anonymous classes, cannot be referenced by other classes
+            return otherAbiHash != null;
+        }
+        return !thisAbiHash.equals(otherAbiHash);
+    }
+
     private Set<String> addedSince(ClasspathEntrySnapshot other) {
         Set<String> addedClasses = new HashSet<String>(getClasses());
         addedClasses.removeAll(other.getClasses());
@@ -24,6 +24,7 @@ import java.util.Map;
 public class ClasspathEntrySnapshotData {
 
     private final Map<String, HashCode> hashes;
+    private final Map<String, HashCode> abiHashes;
     private final ClassSetAnalysisData classAnalysis;
     private final HashCode hash;
 
@@ -33,12 +34,24 @@ public class ClasspathEntrySnapshotData {
      * @param classAnalysis of classes analysis in this entry
      */
     public ClasspathEntrySnapshotData(HashCode hash, Map<String, HashCode> hashes, ClassSetAnalysisData classAnalysis) {
+        this(hash, hashes, hashes, classAnalysis);
+    }
+
+    /**
+     * @param hash of this entry
+     * @param hashes hashes of all classes from the entry
+     * @param abiHashes ABI hashes of the classes from the entry that other classes can be compiled against
+     * @param classAnalysis of classes analysis in this entry
+     */
+    public ClasspathEntrySnapshotData(HashCode hash, Map<String, HashCode> hashes, Map<String, HashCode> abiHashes, ClassSetAnalysisData classAnalysis) {
         assert hash != null;
         assert hashes != null;
+        assert abiHashes != null;
         assert classAnalysis != null;
 
         this.hash = hash;
         this.hashes = hashes;
+        this.abiHashes = abiHashes;
         this.classAnalysis = classAnalysis;
     }
 
@@ -46,6 +59,10 @@ public class ClasspathEntrySnapshotData {
         return hashes;
     }
 
+    public Map<String, HashCode> getAbiHashes() {
+        return abiHashes;
+    }
+
     public ClassSetAnalysisData getClassAnalysis() {
         return classAnalysis;
     }
@@ -46,14 +46,16 @@ public class ClasspathEntrySnapshotDataSerializer extends AbstractSerializer<Cla
     public ClasspathEntrySnapshotData read(Decoder decoder) throws Exception {
         HashCode hash = hashCodeSerializer.read(decoder);
         Map<String, HashCode> hashes = mapSerializer.read(decoder);
+        Map<String, HashCode> abiHashes = mapSerializer.read(decoder);
         ClassSetAnalysisData data = analysisSerializer.read(decoder);
-        return new ClasspathEntrySnapshotData(hash, hashes, data);
+        return new ClasspathEntrySnapshotData(hash, hashes, abiHashes, data);
     }
 
     @Override
     public void write(Encoder encoder, ClasspathEntrySnapshotData value) throws Exception {
         hashCodeSerializer.write(encoder, value.getHash());
         mapSerializer.write(encoder, value.getHashes());
+        mapSerializer.write(encoder, value.getAbiHashes());
         analysisSerializer.write(encoder, value.getClassAnalysis());
     }
 
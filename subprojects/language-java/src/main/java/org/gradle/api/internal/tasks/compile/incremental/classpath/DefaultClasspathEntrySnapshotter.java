@@ -15,7 +15,10 @@
  */
 package org.gradle.api.internal.tasks.compile.incremental.classpath;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import org.gradle.api.Action;
+import org.gradle.api.file.EmptyFileVisitor;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.internal.file.FileOperations;
@@ -26,36 +29,54 @@ import org.gradle.internal.IoActions;
 import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.StreamHasher;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
 import static org.gradle.internal.FileUtils.hasExtension;
 
 public class DefaultClasspathEntrySnapshotter {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultClasspathEntrySnapshotter.class);
+    private static final int ANALYSIS_BATCH_SIZE = 500;
 
     private final FileHasher fileHasher;
     private final StreamHasher hasher;
     private final ClassDependenciesAnalyzer analyzer;
     private final FileOperations fileOperations;
+    private final BuildOperationExecutor buildOperationExecutor;
 
     public DefaultClasspathEntrySnapshotter(FileHasher fileHasher, StreamHasher streamHasher, ClassDependenciesAnalyzer analyzer, FileOperations fileOperations) {
+        this(fileHasher, streamHasher, analyzer, fileOperations, null);
+    }
+
+    /**
+     * When a build operation executor is given, the class files of a directory entry are hashed and analyzed in parallel.
+     */
+    public DefaultClasspathEntrySnapshotter(FileHasher fileHasher, StreamHasher streamHasher, ClassDependenciesAnalyzer analyzer, FileOperations fileOperations, @Nullable BuildOperationExecutor buildOperationExecutor) {
         this.fileHasher = fileHasher;
         this.hasher = streamHasher;
         this.analyzer = analyzer;
         this.fileOperations = fileOperations;
+        this.buildOperationExecutor = buildOperationExecutor;
     }
 
     public ClasspathEntrySnapshot createSnapshot(HashCode hash, File classpathEntry) {
         final Map<String, HashCode> hashes = Maps.newHashMap();
+        final Map<String, HashCode> abiHashes = Maps.newHashMap();
         final ClassDependentsAccumulator accumulator = new ClassDependentsAccumulator();
 
         try {
-            visit(classpathEntry, hashes, accumulator);
+            visit(classpathEntry, hashes, abiHashes, accumulator);
         } catch (Exception e) {
             accumulator.fullRebuildNeeded(classpathEntry + " could not be analyzed for incremental compilation. See the debug log for more details");
             if (LOGGER.isDebugEnabled()) {
@@ -63,25 +84,112 @@ public class DefaultClasspathEntrySnapshotter {
             }
         }
 
-        return new ClasspathEntrySnapshot(new ClasspathEntrySnapshotData(hash, hashes, accumulator.getAnalysis()));
+        return new ClasspathEntrySnapshot(new ClasspathEntrySnapshotData(hash, hashes, abiHashes, accumulator.getAnalysis()));
     }
 
-    private void visit(File classpathEntry, Map<String, HashCode> hashes, ClassDependentsAccumulator accumulator) {
+    private void visit(File classpathEntry, Map<String, HashCode> hashes, Map<String, HashCode> abiHashes, ClassDependentsAccumulator accumulator) {
         if (hasExtension(classpathEntry, ".jar")) {
-            fileOperations.zipTree(classpathEntry).visit(new JarEntryVisitor(accumulator, hashes));
+            fileOperations.zipTree(classpathEntry).visit(new JarEntryVisitor(accumulator, hashes, abiHashes));
         }
         if (classpathEntry.isDirectory()) {
-            fileOperations.fileTree(classpathEntry).visit(new DirectoryEntryVisitor(accumulator, hashes));
+            if (buildOperationExecutor == null) {
+                fileOperations.fileTree(classpathEntry).visit(new DirectoryEntryVisitor(accumulator, hashes, abiHashes));
+            } else {
+                visitDirectoryInParallel(classpathEntry, hashes, abiHashes, accumulator);
+            }
+        }
+    }
+
+    private void visitDirectoryInParallel(File classpathEntry, Map<String, HashCode> hashes, Map<String, HashCode> abiHashes, ClassDependentsAccumulator accumulator) {
+        final List<FileVisitDetails> classFiles = Lists.newArrayList();
+        fileOperations.fileTree(classpathEntry).visit(new EmptyFileVisitor() {
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                if (fileDetails.getName().endsWith(".class")) {
+                    classFiles.add(fileDetails);
+                }
+            }
+        });
+
+        final HashCode[] classFileHashes = new HashCode[classFiles.size()];
+        final ClassAnalysis[] analyses = new ClassAnalysis[classFiles.size()];
+        final Exception[] failures = new Exception[classFiles.size()];
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+            @Override
+            public void execute(BuildOperationQueue<RunnableBuildOperation> buildOperationQueue) {
+                for (int start = 0; start < classFiles.size(); start += ANALYSIS_BATCH_SIZE) {
+                    int end = Math.min(start + ANALYSIS_BATCH_SIZE, classFiles.size());
+                    buildOperationQueue.add(new AnalyzeClassFilesOperation(classFiles, start, end, classFileHashes, analyses, failures));
+                }
+            }
+        });
+
+        // Accumulate in visiting order, so the result is the same as for a sequential visit
+        for (int i = 0; i < classFiles.size(); i++) {
+            addClass(classFiles.get(i), classFileHashes[i], analyses[i], failures[i], accumulator, hashes, abiHashes);
+        }
+    }
+
+    private static void addClass(FileVisitDetails fileDetails, HashCode classFileHash, @Nullable ClassAnalysis analysis, @Nullable Exception failure, ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes, Map<String, HashCode> abiHashes) {
+        if (failure != null) {
+            accumulator.fullRebuildNeeded(fileDetails.getName() + " could not be analyzed for incremental compilation. See the debug log for more details");
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Could not analyze " + fileDetails.getName() + " for incremental compilation", failure);
+            }
+            return;
+        }
+        accumulator.addClass(analysis);
+        hashes.put(analysis.getClassName(), classFileHash);
+        if (analysis.getAbiHash() != null) {
+            abiHashes.put(analysis.getClassName(), analysis.getAbiHash());
+        }
+    }
+
+    private class AnalyzeClassFilesOperation implements RunnableBuildOperation {
+        private final List<FileVisitDetails> classFiles;
+        private final int start;
+        private final int end;
+        private final HashCode[] classFileHashes;
+        private final ClassAnalysis[] analyses;
+        private final Exception[] failures;
+
+        AnalyzeClassFilesOperation(List<FileVisitDetails> classFiles, int start, int end, HashCode[] classFileHashes, ClassAnalysis[] analyses, Exception[] failures) {
+            this.classFiles = classFiles;
+            this.start = start;
+            this.end = end;
+            this.classFileHashes = classFileHashes;
+            this.analyses = analyses;
+            this.failures = failures;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            for (int i = start; i < end; i++) {
+                FileVisitDetails fileDetails = classFiles.get(i);
+                try {
+                    classFileHashes[i] = fileHasher.hash(fileDetails);
+                    analyses[i] = analyzer.getClassAnalysis(classFileHashes[i], fileDetails);
+                } catch (Exception e) {
+                    failures[i] = e;
+                }
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Analyze " + (end - start) + " class files for incremental compilation");
         }
     }
 
     private abstract class EntryVisitor implements FileVisitor {
         private final ClassDependentsAccumulator accumulator;
         private final Map<String, HashCode> hashes;
+        private final Map<String, HashCode> abiHashes;
 
-        public EntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
+        public EntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes, Map<String, HashCode> abiHashes) {
             this.accumulator = accumulator;
             this.hashes = hashes;
+            this.abiHashes = abiHashes;
         }
 
         public void visitDir(FileVisitDetails dirDetails) {
@@ -94,16 +202,14 @@ public class DefaultClasspathEntrySnapshotter {
 
             HashCode classFileHash = getHashCode(fileDetails);
 
+            ClassAnalysis analysis = null;
+            Exception failure = null;
             try {
-                ClassAnalysis analysis = analyzer.getClassAnalysis(classFileHash, fileDetails);
-                accumulator.addClass(analysis);
-                hashes.put(analysis.getClassName(), classFileHash);
+                analysis = analyzer.getClassAnalysis(classFileHash, fileDetails);
             } catch (Exception e) {
-                accumulator.fullRebuildNeeded(fileDetails.getName() + " could not be analyzed for incremental compilation. See the debug log for more details");
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Could not analyze " + fileDetails.getName() + " for incremental compilation", e);
-                }
+                failure = e;
             }
+            addClass(fileDetails, classFileHash, analysis, failure, accumulator, hashes, abiHashes);
         }
 
         protected abstract HashCode getHashCode(FileVisitDetails fileDetails);
@@ -111,8 +217,8 @@ public class DefaultClasspathEntrySnapshotter {
 
     private class JarEntryVisitor extends EntryVisitor {
 
-        public JarEntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
-            super(accumulator, hashes);
+        public JarEntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes, Map<String, HashCode> abiHashes) {
+            super(accumulator, hashes, abiHashes);
         }
 
         @Override
@@ -128,8 +234,8 @@ public class DefaultClasspathEntrySnapshotter {
 
     private class DirectoryEntryVisitor extends EntryVisitor {
 
-        public DirectoryEntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
-            super(accumulator, hashes);
+        public DirectoryEntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes, Map<String, HashCode> abiHashes) {
+            super(accumulator, hashes, abiHashes);
         }
 
         @Override
@@ -19,7 +19,9 @@ package org.gradle.api.internal.tasks.compile.incremental.deps;
 import com.google.common.collect.ImmutableSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.ints.IntSets;
+import org.gradle.internal.hash.HashCode;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 /**
@@ -30,12 +32,18 @@ public class ClassAnalysis {
     private final Set<String> classDependencies;
     private final boolean dependencyToAll;
     private final IntSet constants;
+    private final HashCode abiHash;
 
     public ClassAnalysis(String className, Set<String> classDependencies, boolean dependencyToAll, IntSet constants) {
+        this(className, classDependencies, dependencyToAll, constants, null);
+    }
+
+    public ClassAnalysis(String className, Set<String> classDependencies, boolean dependencyToAll, IntSet constants, @Nullable HashCode abiHash) {
         this.className = className;
         this.classDependencies = ImmutableSet.copyOf(classDependencies);
         this.dependencyToAll = dependencyToAll;
         this.constants = constants.isEmpty() ? IntSets.EMPTY_SET : constants;
+        this.abiHash = abiHash;
     }
 
     public String getClassName() {
@@ -53,4 +61,12 @@ public class ClassAnalysis {
     public boolean isDependencyToAll() {
         return dependencyToAll;
     }
+
+    /**
+     * Returns the hash of the parts of the class that other classes can be compiled against, or null when the class cannot be referenced by other classes, such as anonymous classes.
+     */
+    @Nullable
+    public HashCode getAbiHash() {
+        return abiHash;
+    }
 }
@@ -33,6 +33,8 @@ public class ClassSetAnalysis {
     private final AnnotationProcessingData annotationProcessingData;
     private final ImmutableSetMultimap<String, String> classDependenciesFromAnnotationProcessing;
     private final ImmutableSetMultimap<String, GeneratedResource> resourceDependenciesFromAnnotationProcessing;
+    private final ImmutableSet<String> generatedAggregatingTypesWithOrigin;
+    private final ImmutableSet<GeneratedResource> generatedAggregatingResourcesWithOrigin;
 
     public ClassSetAnalysis(ClassSetAnalysisData classAnalysis) {
         this(classAnalysis, new AnnotationProcessingData());
@@ -49,7 +51,15 @@ public class ClassSetAnalysis {
                 classDependenciesFromAnnotationProcessing.put(generated, origin);
             }
         }
+        // Types generated by aggregating processors depend on each of their origins, but not the other way around:
+        // changing or deleting such a type does not mean that any single origin has to be processed again.
+        ImmutableSet.Builder<String> generatedAggregatingTypesWithOrigin = ImmutableSet.builder();
+        for (Map.Entry<String, Set<String>> entry : annotationProcessingData.getGeneratedAggregatingTypesByOrigin().entrySet()) {
+            classDependenciesFromAnnotationProcessing.putAll(entry.getKey(), entry.getValue());
+            generatedAggregatingTypesWithOrigin.addAll(entry.getValue());
+        }
         this.classDependenciesFromAnnotationProcessing = classDependenciesFromAnnotationProcessing.build();
+        this.generatedAggregatingTypesWithOrigin = generatedAggregatingTypesWithOrigin.build();
 
         ImmutableSetMultimap.Builder<String, GeneratedResource> resourceDependenciesFromAnnotationProcessing = ImmutableSetMultimap.builder();
         for (Map.Entry<String, Set<GeneratedResource>> entry : annotationProcessingData.getGeneratedResourcesByOrigin().entrySet()) {
@@ -58,7 +68,13 @@ public class ClassSetAnalysis {
                 resourceDependenciesFromAnnotationProcessing.put(origin, generated);
             }
         }
+        ImmutableSet.Builder<GeneratedResource> generatedAggregatingResourcesWithOrigin = ImmutableSet.builder();
+        for (Map.Entry<String, Set<GeneratedResource>> entry : annotationProcessingData.getGeneratedAggregatingResourcesByOrigin().entrySet()) {
+            resourceDependenciesFromAnnotationProcessing.putAll(entry.getKey(), entry.getValue());
+            generatedAggregatingResourcesWithOrigin.addAll(entry.getValue());
+        }
         this.resourceDependenciesFromAnnotationProcessing = resourceDependenciesFromAnnotationProcessing.build();
+        this.generatedAggregatingResourcesWithOrigin = generatedAggregatingResourcesWithOrigin.build();
     }
 
     public ClassSetAnalysis withAnnotationProcessingData(AnnotationProcessingData annotationProcessingData) {
@@ -104,7 +120,9 @@ public class ClassSetAnalysis {
         }
         Set<String> classesDependingOnAllOthers = annotationProcessingData.getGeneratedTypesDependingOnAllOthers();
         Set<GeneratedResource> resourcesDependingOnAllOthers = annotationProcessingData.getGeneratedResourcesDependingOnAllOthers();
-        if (deps.getDependentClasses().isEmpty() && classesDependingOnAllOthers.isEmpty() && resourcesDependingOnAllOthers.isEmpty()) {
+        // An aggregating processor may read any aggregated type when writing an output, not just the origins it declares for the output
+        boolean aggregatedTypeChanged = annotationProcessingData.getAggregatedTypes().contains(className);
+        if (deps.getDependentClasses().isEmpty() && classesDependingOnAllOthers.isEmpty() && resourcesDependingOnAllOthers.isEmpty() && !aggregatedTypeChanged) {
             return deps;
         }
 
@@ -112,11 +130,33 @@ public class ClassSetAnalysis {
         Set<GeneratedResource> resultResources = new HashSet<GeneratedResource>(resourcesDependingOnAllOthers);
         recurseDependentClasses(new HashSet<String>(), resultClasses, resultResources, deps.getDependentClasses());
         recurseDependentClasses(new HashSet<String>(), resultClasses, resultResources, classesDependingOnAllOthers);
+        if (aggregatedTypeChanged) {
+            resultResources.addAll(generatedAggregatingResourcesWithOrigin);
+            recurseDependentClasses(new HashSet<String>(), resultClasses, resultResources, generatedAggregatingTypesWithOrigin);
+        }
         resultClasses.remove(className);
 
         return DependentsSet.dependents(resultClasses, resultResources);
     }
 
+    /**
+     * Returns the outputs that aggregating processors generated from known originating types, and their dependents.
+     * These need to be recreated when a type is added, as the new type may be aggregated into these outputs.
+     */
+    public DependentsSet getDependentsOfAggregatingOutputs() {
+        String fullRebuildCause = annotationProcessingData.getFullRebuildCause();
+        if (fullRebuildCause != null) {
+            return DependentsSet.dependencyToAll(fullRebuildCause);
+        }
+        if (generatedAggregatingTypesWithOrigin.isEmpty() && generatedAggregatingResourcesWithOrigin.isEmpty()) {
+            return DependentsSet.empty();
+        }
+        Set<String> resultClasses = new HashSet<String>();
+        Set<GeneratedResource> resultResources = new HashSet<GeneratedResource>(generatedAggregatingResourcesWithOrigin);
+        recurseDependentClasses(new HashSet<String>(), resultClasses, resultResources, generatedAggregatingTypesWithOrigin);
+        return DependentsSet.dependents(resultClasses, resultResources);
+    }
+
     public Set<String> getTypesToReprocess() {
         return annotationProcessingData.getAggregatedTypes();
     }
@@ -16,9 +16,8 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.deps;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.ints.IntSets;
 import org.apache.commons.lang.StringUtils;
@@ -26,25 +25,107 @@ import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.internal.serialize.AbstractSerializer;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
-import org.gradle.internal.serialize.IntSetSerializer;
 
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
+/**
+ * The dependencies between the classes of a class set, indexed by class.
+ *
+ * <p>Class names are stored once, in sorted order, and everything else refers to classes by their index in that order.
+ * The dependents and the constants of the classes are stored as flat arrays, with an offset array pointing at the entries of each class.
+ * As classes are sorted by name, the classes of a package are adjacent, which is used to find the dependents of a package.</p>
+ */
 public class ClassSetAnalysisData {
     public static final String PACKAGE_INFO = "package-info";
+    private static final int[] NO_ENTRIES = new int[0];
 
-    private final Set<String> classes;
-    private final Map<String, DependentsSet> dependents;
-    private final Map<String, IntSet> classesToConstants;
+    private final String[] classNames;
+    private final BitSet classes;
+    private final int[] dependentsOffsets;
+    private final int[] dependents;
+    private final Map<Integer, String> dependencyToAll;
+    private final int[] constantsOffsets;
+    private final int[] constants;
     private final String fullRebuildCause;
 
     public ClassSetAnalysisData(Set<String> classes, Map<String, DependentsSet> dependents, Map<String, IntSet> classesToConstants, String fullRebuildCause) {
+        SortedSet<String> allClassNames = new TreeSet<String>(classes);
+        allClassNames.addAll(dependents.keySet());
+        for (DependentsSet dependentsSet : dependents.values()) {
+            if (!dependentsSet.isDependencyToAll()) {
+                allClassNames.addAll(dependentsSet.getDependentClasses());
+            }
+        }
+        allClassNames.addAll(classesToConstants.keySet());
+        this.classNames = allClassNames.toArray(new String[0]);
+
+        this.classes = new BitSet(classNames.length);
+        for (String className : classes) {
+            this.classes.set(indexOf(className));
+        }
+
+        this.dependencyToAll = new HashMap<Integer, String>();
+        this.dependentsOffsets = new int[classNames.length + 1];
+        int dependentsCount = 0;
+        for (int i = 0; i < classNames.length; i++) {
+            dependentsOffsets[i] = dependentsCount;
+            DependentsSet dependentsSet = dependents.get(classNames[i]);
+            if (dependentsSet == null) {
+                continue;
+            }
+            if (dependentsSet.isDependencyToAll()) {
+                dependencyToAll.put(i, dependentsSet.getDescription());
+            } else {
+                dependentsCount += dependentsSet.getDependentClasses().size();
+            }
+        }
+        dependentsOffsets[classNames.length] = dependentsCount;
+        this.dependents = new int[dependentsCount];
+        for (int i = 0; i < classNames.length; i++) {
+            DependentsSet dependentsSet = dependents.get(classNames[i]);
+            if (dependentsSet != null && !dependentsSet.isDependencyToAll()) {
+                int offset = dependentsOffsets[i];
+                for (String dependent : dependentsSet.getDependentClasses()) {
+                    this.dependents[offset++] = indexOf(dependent);
+                }
+            }
+        }
+
+        this.constantsOffsets = new int[classNames.length + 1];
+        int constantsCount = 0;
+        for (int i = 0; i < classNames.length; i++) {
+            constantsOffsets[i] = constantsCount;
+            IntSet classConstants = classesToConstants.get(classNames[i]);
+            if (classConstants != null) {
+                constantsCount += classConstants.size();
+            }
+        }
+        constantsOffsets[classNames.length] = constantsCount;
+        this.constants = new int[constantsCount];
+        for (int i = 0; i < classNames.length; i++) {
+            IntSet classConstants = classesToConstants.get(classNames[i]);
+            if (classConstants != null) {
+                System.arraycopy(classConstants.toIntArray(), 0, this.constants, constantsOffsets[i], classConstants.size());
+            }
+        }
+
+        this.fullRebuildCause = fullRebuildCause;
+    }
+
+    private ClassSetAnalysisData(String[] classNames, BitSet classes, int[] dependentsOffsets, int[] dependents, Map<Integer, String> dependencyToAll, int[] constantsOffsets, int[] constants, String fullRebuildCause) {
+        this.classNames = classNames;
         this.classes = classes;
+        this.dependentsOffsets = dependentsOffsets;
         this.dependents = dependents;
-        this.classesToConstants = classesToConstants;
+        this.dependencyToAll = dependencyToAll;
+        this.constantsOffsets = constantsOffsets;
+        this.constants = constants;
         this.fullRebuildCause = fullRebuildCause;
     }
 
@@ -56,27 +137,61 @@ public class ClassSetAnalysisData {
             String packageName = className.equals(PACKAGE_INFO) ? null : StringUtils.removeEnd(className, "." + PACKAGE_INFO);
             return getDependentsOfPackage(packageName);
         }
-        DependentsSet dependentsSet = dependents.get(className);
-        return dependentsSet == null ? DependentsSet.empty() : dependentsSet;
+        int index = indexOf(className);
+        if (index < 0) {
+            return DependentsSet.empty();
+        }
+        if (dependencyToAll.containsKey(index)) {
+            return DependentsSet.dependencyToAll(dependencyToAll.get(index));
+        }
+        int start = dependentsOffsets[index];
+        int end = dependentsOffsets[index + 1];
+        if (start == end) {
+            return DependentsSet.empty();
+        }
+        ImmutableSet.Builder<String> dependentClasses = ImmutableSet.builder();
+        for (int i = start; i < end; i++) {
+            dependentClasses.add(classNames[dependents[i]]);
+        }
+        return DependentsSet.dependentClasses(dependentClasses.build());
     }
 
     private DependentsSet getDependentsOfPackage(String packageName) {
-        Set<String> typesInPackage = Sets.newHashSet();
-        for (String type : classes) {
-            int i = type.lastIndexOf(".");
-            if (i < 0 && packageName == null || i > 0 && type.substring(0, i).equals(packageName)) {
-                typesInPackage.add(type);
+        ImmutableSet.Builder<String> typesInPackage = ImmutableSet.builder();
+        if (packageName == null) {
+            for (int i = classes.nextSetBit(0); i >= 0; i = classes.nextSetBit(i + 1)) {
+                if (classNames[i].indexOf('.') < 0) {
+                    typesInPackage.add(classNames[i]);
+                }
+            }
+        } else {
+            String prefix = packageName + ".";
+            int index = indexOf(prefix);
+            for (int i = index < 0 ? -index - 1 : index; i < classNames.length && classNames[i].startsWith(prefix); i++) {
+                // Skip classes of sub-packages
+                if (classes.get(i) && classNames[i].indexOf('.', prefix.length()) < 0) {
+                    typesInPackage.add(classNames[i]);
+                }
             }
         }
-        return DependentsSet.dependentClasses(typesInPackage);
+        return DependentsSet.dependentClasses(typesInPackage.build());
     }
 
     public IntSet getConstants(String className) {
-        IntSet integers = classesToConstants.get(className);
-        if (integers == null) {
+        int index = indexOf(className);
+        if (index < 0) {
             return IntSets.EMPTY_SET;
         }
-        return integers;
+        int start = constantsOffsets[index];
+        int end = constantsOffsets[index + 1];
+        if (start == end) {
+            return IntSets.EMPTY_SET;
+        }
+        return new IntOpenHashSet(constants, start, end - start);
+    }
+
+    private int indexOf(String className) {
+        return Arrays.binarySearch(classNames, className);
     }
 
     public static class Serializer extends AbstractSerializer<ClassSetAnalysisData> {
@@ -89,105 +204,106 @@ public class ClassSetAnalysisData {
 
         @Override
         public ClassSetAnalysisData read(Decoder decoder) throws Exception {
-            Map<Integer, String> classNameMap = new HashMap<Integer, String>();
-
             int count = decoder.readSmallInt();
-            ImmutableSet.Builder<String> classes = ImmutableSet.builder();
+            String[] classNames = new String[count];
+            String previous = "";
             for (int i = 0; i < count; i++) {
-                classes.add(readClassName(decoder, classNameMap));
+                int commonPrefixLength = decoder.readSmallInt();
+                previous = interner.intern(previous.substring(0, commonPrefixLength) + decoder.readString());
+                classNames[i] = previous;
             }
 
-            count = decoder.readSmallInt();
-            ImmutableMap.Builder<String, DependentsSet> dependentsBuilder = ImmutableMap.builder();
-            for (int i = 0; i < count; i++) {
-                String className = readClassName(decoder, classNameMap);
-                DependentsSet dependents = readDependentsSet(decoder, classNameMap);
-                dependentsBuilder.put(className, dependents);
+            BitSet classes = new BitSet(count);
+            int classCount = decoder.readSmallInt();
+            int index = 0;
+            for (int i = 0; i < classCount; i++) {
+                index += decoder.readSmallInt();
+                classes.set(index);
             }
 
-            count = decoder.readSmallInt();
-            ImmutableMap.Builder<String, IntSet> classesToConstantsBuilder = ImmutableMap.builder();
-            for (int i = 0; i < count; i++) {
-                String className = readClassName(decoder, classNameMap);
-                IntSet constants = IntSetSerializer.INSTANCE.read(decoder);
-                classesToConstantsBuilder.put(className, constants);
+            int[] dependentsOffsets = readOffsets(decoder, count);
+            int[] dependents = readIndices(decoder, dependentsOffsets[count]);
+            int dependencyToAllCount = decoder.readSmallInt();
+            Map<Integer, String> dependencyToAll = new HashMap<Integer, String>(dependencyToAllCount);
+            for (int i = 0; i < dependencyToAllCount; i++) {
+                dependencyToAll.put(decoder.readSmallInt(), decoder.readNullableString());
+            }
+
+            int[] constantsOffsets = readOffsets(decoder, count);
+            int[] constants = new int[constantsOffsets[count]];
+            for (int i = 0; i < constants.length; i++) {
+                constants[i] = decoder.readInt();
             }
 
             String fullRebuildCause = decoder.readNullableString();
 
-            return new ClassSetAnalysisData(classes.build(), dependentsBuilder.build(), classesToConstantsBuilder.build(), fullRebuildCause);
+            return new ClassSetAnalysisData(classNames, classes, dependentsOffsets, dependents, dependencyToAll, constantsOffsets, constants, fullRebuildCause);
         }
 
         @Override
         public void write(Encoder encoder, ClassSetAnalysisData value) throws Exception {
-            Map<String, Integer> classNameMap = new HashMap<String, Integer>();
-            encoder.writeSmallInt(value.classes.size());
-            for (String clazz : value.classes) {
-                writeClassName(clazz, classNameMap, encoder);
+            int count = value.classNames.length;
+            encoder.writeSmallInt(count);
+            String previous = "";
+            for (String className : value.classNames) {
+                // Class names are sorted, so only write the part that differs from the previous name
+                int commonPrefixLength = StringUtils.indexOfDifference(previous, className);
+                if (commonPrefixLength < 0) {
+                    commonPrefixLength = className.length();
+                }
+                encoder.writeSmallInt(commonPrefixLength);
+                encoder.writeString(className.substring(commonPrefixLength));
+                previous = className;
             }
 
-            encoder.writeSmallInt(value.dependents.size());
-            for (Map.Entry<String, DependentsSet> entry : value.dependents.entrySet()) {
-                writeClassName(entry.getKey(), classNameMap, encoder);
-                writeDependentSet(entry.getValue(), classNameMap, encoder);
+            encoder.writeSmallInt(value.classes.cardinality());
+            int previousIndex = 0;
+            for (int i = value.classes.nextSetBit(0); i >= 0; i = value.classes.nextSetBit(i + 1)) {
+                encoder.writeSmallInt(i - previousIndex);
+                previousIndex = i;
             }
 
-            encoder.writeSmallInt(value.classesToConstants.size());
-            for (Map.Entry<String, IntSet> entry : value.classesToConstants.entrySet()) {
-                writeClassName(entry.getKey(), classNameMap, encoder);
-                IntSetSerializer.INSTANCE.write(encoder, entry.getValue());
+            writeOffsets(encoder, value.dependentsOffsets, count);
+            for (int dependent : value.dependents) {
+                encoder.writeSmallInt(dependent);
+            }
+            encoder.writeSmallInt(value.dependencyToAll.size());
+            for (Map.Entry<Integer, String> entry : value.dependencyToAll.entrySet()) {
+                encoder.writeSmallInt(entry.getKey());
+                encoder.writeNullableString(entry.getValue());
             }
+
+            writeOffsets(encoder, value.constantsOffsets, count);
+            for (int constant : value.constants) {
+                encoder.writeInt(constant);
+            }
+
             encoder.writeNullableString(value.fullRebuildCause);
         }
 
-        private DependentsSet readDependentsSet(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
-            byte b = decoder.readByte();
-            if (b == 1) {
-                return DependentsSet.dependencyToAll(decoder.readNullableString());
-            }
-            int count = decoder.readSmallInt();
-            ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        private static int[] readOffsets(Decoder decoder, int count) throws Exception {
+            int[] offsets = new int[count + 1];
             for (int i = 0; i < count; i++) {
-                builder.add(readClassName(decoder, classNameMap));
+                offsets[i + 1] = offsets[i] + decoder.readSmallInt();
             }
-            return DependentsSet.dependentClasses(builder.build());
+            return offsets;
         }
 
-        private void writeDependentSet(DependentsSet dependentsSet, Map<String, Integer> classNameMap, Encoder encoder) throws IOException {
-            if (dependentsSet.isDependencyToAll()) {
-                encoder.writeByte((byte) 1);
-                encoder.writeNullableString(dependentsSet.getDescription());
-            } else {
-                encoder.writeByte((byte) 2);
-                encoder.writeSmallInt(dependentsSet.getDependentClasses().size());
-                for (String className : dependentsSet.getDependentClasses()) {
-                    writeClassName(className, classNameMap, encoder);
-                }
+        private static void writeOffsets(Encoder encoder, int[] offsets, int count) throws Exception {
+            for (int i = 0; i < count; i++) {
+                encoder.writeSmallInt(offsets[i + 1] - offsets[i]);
             }
         }
 
-        private String readClassName(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
-            int id = decoder.readSmallInt();
-            if (id == 0) {
-                id = decoder.readSmallInt();
-                String className = interner.intern(decoder.readString());
-                classNameMap.put(id, className);
-                return className;
+        private static int[] readIndices(Decoder decoder, int count) throws Exception {
+            if (count == 0) {
+                return NO_ENTRIES;
             }
-            return classNameMap.get(id);
-        }
-
-        private void writeClassName(String className, Map<String, Integer> classIdMap, Encoder encoder) throws IOException {
-            Integer id = classIdMap.get(className);
-            if (id == null) {
-                id = classIdMap.size() + 1;
-                classIdMap.put(className, id);
-                encoder.writeSmallInt(0);
-                encoder.writeSmallInt(id);
-                encoder.writeString(className);
-            } else {
-                encoder.writeSmallInt(id);
+            int[] indices = new int[count];
+            for (int i = 0; i < count; i++) {
+                indices[i] = decoder.readSmallInt();
             }
+            return indices;
         }
     }
 }
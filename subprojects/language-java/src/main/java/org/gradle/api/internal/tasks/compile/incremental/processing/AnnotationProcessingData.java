@@ -35,6 +35,8 @@ public class AnnotationProcessingData {
     private final Set<String> generatedTypesDependingOnAllOthers;
     private final Map<String, Set<GeneratedResource>> generatedResourcesByOrigin;
     private final Set<GeneratedResource> generatedResourcesDependingOnAllOthers;
+    private final Map<String, Set<String>> generatedAggregatingTypesByOrigin;
+    private final Map<String, Set<GeneratedResource>> generatedAggregatingResourcesByOrigin;
     private final String fullRebuildCause;
 
     public AnnotationProcessingData() {
@@ -43,12 +45,21 @@ public class AnnotationProcessingData {
 
     public AnnotationProcessingData(Map<String, Set<String>> generatedTypesByOrigin, Set<String> aggregatedTypes, Set<String> generatedTypesDependingOnAllOthers, Map<String,
         Set<GeneratedResource>> generatedResourcesByOrigin, Set<GeneratedResource> generatedResourcesDependingOnAllOthers, String fullRebuildCause) {
+        this(generatedTypesByOrigin, aggregatedTypes, generatedTypesDependingOnAllOthers, generatedResourcesByOrigin, generatedResourcesDependingOnAllOthers,
+            ImmutableMap.<String, Set<String>>of(), ImmutableMap.<String, Set<GeneratedResource>>of(), fullRebuildCause);
+    }
+
+    public AnnotationProcessingData(Map<String, Set<String>> generatedTypesByOrigin, Set<String> aggregatedTypes, Set<String> generatedTypesDependingOnAllOthers, Map<String,
+        Set<GeneratedResource>> generatedResourcesByOrigin, Set<GeneratedResource> generatedResourcesDependingOnAllOthers, Map<String, Set<String>> generatedAggregatingTypesByOrigin,
+        Map<String, Set<GeneratedResource>> generatedAggregatingResourcesByOrigin, String fullRebuildCause) {
 
         this.generatedTypesByOrigin = ImmutableMap.copyOf(generatedTypesByOrigin);
         this.aggregatedTypes = ImmutableSet.copyOf(aggregatedTypes);
         this.generatedTypesDependingOnAllOthers = ImmutableSet.copyOf(generatedTypesDependingOnAllOthers);
         this.generatedResourcesByOrigin = ImmutableMap.copyOf(generatedResourcesByOrigin);
         this.generatedResourcesDependingOnAllOthers = ImmutableSet.copyOf(generatedResourcesDependingOnAllOthers);
+        this.generatedAggregatingTypesByOrigin = ImmutableMap.copyOf(generatedAggregatingTypesByOrigin);
+        this.generatedAggregatingResourcesByOrigin = ImmutableMap.copyOf(generatedAggregatingResourcesByOrigin);
         this.fullRebuildCause = fullRebuildCause;
     }
 
@@ -72,6 +83,14 @@ public class AnnotationProcessingData {
         return generatedResourcesDependingOnAllOthers;
     }
 
+    public Map<String, Set<String>> getGeneratedAggregatingTypesByOrigin() {
+        return generatedAggregatingTypesByOrigin;
+    }
+
+    public Map<String, Set<GeneratedResource>> getGeneratedAggregatingResourcesByOrigin() {
+        return generatedAggregatingResourcesByOrigin;
+    }
+
     public String getFullRebuildCause() {
         return fullRebuildCause;
     }
@@ -100,8 +119,11 @@ public class AnnotationProcessingData {
             String fullRebuildCause = decoder.readNullableString();
             Map<String, Set<GeneratedResource>> generatedResources = generatedResourcesSerializer.read(decoder);
             Set<GeneratedResource> generatedResourcesDependingOnAllOthers = resourcesSerializer.read(decoder);
+            Map<String, Set<String>> generatedAggregatingTypes = generatedTypesSerializer.read(decoder);
+            Map<String, Set<GeneratedResource>> generatedAggregatingResources = generatedResourcesSerializer.read(decoder);
 
-            return new AnnotationProcessingData(generatedTypes, aggregatedTypes, generatedTypesDependingOnAllOthers, generatedResources, generatedResourcesDependingOnAllOthers, fullRebuildCause);
+            return new AnnotationProcessingData(generatedTypes, aggregatedTypes, generatedTypesDependingOnAllOthers, generatedResources, generatedResourcesDependingOnAllOthers,
+                generatedAggregatingTypes, generatedAggregatingResources, fullRebuildCause);
         }
 
         @Override
@@ -112,6 +134,8 @@ public class AnnotationProcessingData {
             encoder.writeNullableString(value.fullRebuildCause);
             generatedResourcesSerializer.write(encoder, value.generatedResourcesByOrigin);
             resourcesSerializer.write(encoder, value.generatedResourcesDependingOnAllOthers);
+            generatedTypesSerializer.write(encoder, value.generatedAggregatingTypesByOrigin);
+            generatedResourcesSerializer.write(encoder, value.generatedAggregatingResourcesByOrigin);
         }
     }
 }
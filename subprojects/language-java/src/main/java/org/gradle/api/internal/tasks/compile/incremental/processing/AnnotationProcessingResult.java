@@ -32,6 +32,8 @@ public class AnnotationProcessingResult implements Serializable {
 
     private final Map<String, Set<String>> generatedTypesByOrigin = new LinkedHashMap<String, Set<String>>();
     private final Map<String, Set<GeneratedResource>> generatedResourcesByOrigin = new LinkedHashMap<String, Set<GeneratedResource>>();
+    private final Map<String, Set<String>> generatedAggregatingTypesByOrigin = new LinkedHashMap<String, Set<String>>();
+    private final Map<String, Set<GeneratedResource>> generatedAggregatingResourcesByOrigin = new LinkedHashMap<String, Set<GeneratedResource>>();
     private final Set<String> aggregatedTypes = new HashSet<String>();
     private final Set<String> generatedTypesDependingOnAllOthers = new HashSet<String>();
     private final Set<GeneratedResource> getGeneratedResourcesDependingOnAllOthers = new HashSet<GeneratedResource>();
@@ -39,24 +41,29 @@ public class AnnotationProcessingResult implements Serializable {
     private String fullRebuildCause;
 
     public void addGeneratedType(String name, Set<String> originatingElements) {
-        for (String originatingElement : originatingElements) {
-            Set<String> derived = generatedTypesByOrigin.get(originatingElement);
-            if (derived == null) {
-                derived = new LinkedHashSet<String>();
-                generatedTypesByOrigin.put(originatingElement, derived);
-            }
-            derived.add(name);
-        }
+        addByOrigin(generatedTypesByOrigin, name, originatingElements);
     }
 
     public void addGeneratedResource(GeneratedResource resource, Set<String> originatingElements) {
+        addByOrigin(generatedResourcesByOrigin, resource, originatingElements);
+    }
+
+    public void addGeneratedAggregatingType(String name, Set<String> originatingElements) {
+        addByOrigin(generatedAggregatingTypesByOrigin, name, originatingElements);
+    }
+
+    public void addGeneratedAggregatingResource(GeneratedResource resource, Set<String> originatingElements) {
+        addByOrigin(generatedAggregatingResourcesByOrigin, resource, originatingElements);
+    }
+
+    private static <T> void addByOrigin(Map<String, Set<T>> byOrigin, T generated, Set<String> originatingElements) {
         for (String originatingElement : originatingElements) {
-            Set<GeneratedResource> derived = generatedResourcesByOrigin.get(originatingElement);
+            Set<T> derived = byOrigin.get(originatingElement);
             if (derived == null) {
-                derived = new LinkedHashSet<GeneratedResource>();
-                generatedResourcesByOrigin.put(originatingElement, derived);
+                derived = new LinkedHashSet<T>();
+                byOrigin.put(originatingElement, derived);
             }
-            derived.add(resource);
+            derived.add(generated);
         }
     }
 
@@ -83,7 +90,23 @@ public class AnnotationProcessingResult implements Serializable {
     }
 
     /**
-     * Contains the types that aggregating annotation processors generated.
+     * Contains the types that aggregating annotation processors generated from known originating elements, grouped by each of those elements.
+     * Such a type, and the classes depending on it, only need to be recompiled when one of its originating types or another aggregated type
+     * changes, or when a type is added. Any other change is picked up when the processor runs again over all aggregated types and rewrites the type.
+     */
+    public Map<String, Set<String>> getGeneratedAggregatingTypesWithOrigin() {
+        return generatedAggregatingTypesByOrigin;
+    }
+
+    /**
+     * Contains the resources that aggregating annotation processors generated from known originating elements, grouped by each of those elements.
+     */
+    public Map<String, Set<GeneratedResource>> getGeneratedAggregatingResourcesWithOrigin() {
+        return generatedAggregatingResourcesByOrigin;
+    }
+
+    /**
+     * Contains the types that aggregating annotation processors generated without any originating elements.
      * These types need to be recompiled on any source change, because it may not be clear where these types came from and whether they are now stale.
      */
     public Set<String> getGeneratedAggregatingTypes() {
@@ -91,7 +114,7 @@ public class AnnotationProcessingResult implements Serializable {
     }
 
     /**
-     * Contains the resources that aggregating annotation processors generated.
+     * Contains the resources that aggregating annotation processors generated without any originating elements.
      * These resources need to be recreated on any source change, because it may not be clear where these resources came from and whether they are now stale.
      */
     public Set<GeneratedResource> getGeneratedAggregatingResources() {
@@ -43,7 +43,7 @@ class InputChangeAction implements Action<InputFileDetails> {
         }
 
         File file = input.getFile();
-        if (hasExtension(file, ".java")) {
+        if (hasExtension(file, ".java") || hasExtension(file, ".groovy")) {
             javaChangeProcessor.processChange(input, spec);
         } else if (hasExtension(file, ".jar") || hasExtension(file, ".class")) {
             annotationProcessorChangeProcessor.processChange(input, spec);
@@ -31,14 +31,25 @@ class JavaChangeProcessor {
     }
 
     public void processChange(InputFileDetails input, RecompilationSpec spec) {
-        String className = sourceToNameConverter.getClassName(input.getFile());
-        spec.getClassesToCompile().add(className);
-        DependentsSet actualDependents = previousCompilation.getDependents(className, IntSets.EMPTY_SET);
-        if (actualDependents.isDependencyToAll()) {
-            spec.setFullRebuildCause(actualDependents.getDescription(), input.getFile());
-            return;
+        if (input.isAdded()) {
+            // An added type may be aggregated into the outputs of aggregating processors
+            DependentsSet aggregatingOutputs = previousCompilation.getDependentsOfAggregatingOutputs();
+            if (aggregatingOutputs.isDependencyToAll()) {
+                spec.setFullRebuildCause(aggregatingOutputs.getDescription(), input.getFile());
+                return;
+            }
+            spec.getClassesToCompile().addAll(aggregatingOutputs.getDependentClasses());
+            spec.getResourcesToGenerate().addAll(aggregatingOutputs.getDependentResources());
+        }
+        for (String className : sourceToNameConverter.getClassNames(input.getFile())) {
+            spec.getClassesToCompile().add(className);
+            DependentsSet actualDependents = previousCompilation.getDependents(className, IntSets.EMPTY_SET);
+            if (actualDependents.isDependencyToAll()) {
+                spec.setFullRebuildCause(actualDependents.getDescription(), input.getFile());
+                return;
+            }
+            spec.getClassesToCompile().addAll(actualDependents.getDependentClasses());
+            spec.getResourcesToGenerate().addAll(actualDependents.getDependentResources());
         }
-        spec.getClassesToCompile().addAll(actualDependents.getDependentClasses());
-        spec.getResourcesToGenerate().addAll(actualDependents.getDependentResources());
     }
 }
@@ -66,6 +66,10 @@ public class PreviousCompilation {
         return getClassAnalysis().getRelevantDependents(className, constants);
     }
 
+    public DependentsSet getDependentsOfAggregatingOutputs() {
+        return getClassAnalysis().getDependentsOfAggregatingOutputs();
+    }
+
     public Set<String> getTypesToReprocess() {
         return getClassAnalysis().getTypesToReprocess();
     }
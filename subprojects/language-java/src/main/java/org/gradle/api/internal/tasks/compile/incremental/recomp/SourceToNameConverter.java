@@ -16,33 +16,80 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.recomp;
 
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
 import org.gradle.util.RelativePathUtil;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static java.lang.String.format;
 
 public class SourceToNameConverter {
 
     private CompilationSourceDirs sourceDirs;
+    private final Multimap<File, String> declaredClasses;
+    private final Map<String, File> declaringSources;
 
     public SourceToNameConverter(CompilationSourceDirs sourceDirs) {
+        this(sourceDirs, ImmutableMultimap.<File, String>of());
+    }
+
+    /**
+     * @param declaredClasses the top-level classes each source file declared in the previous compilation, for compilers that report them.
+     * Source files that are not in the mapping are assumed to declare a single class named after the file.
+     */
+    public SourceToNameConverter(CompilationSourceDirs sourceDirs, Multimap<File, String> declaredClasses) {
         this.sourceDirs = sourceDirs;
+        this.declaredClasses = declaredClasses;
+        this.declaringSources = Maps.newHashMapWithExpectedSize(declaredClasses.size());
+        for (Map.Entry<File, String> entry : declaredClasses.entries()) {
+            declaringSources.put(entry.getValue(), entry.getKey());
+        }
     }
 
     public String getClassName(File javaSourceClass) {
+        return getRelativePath(javaSourceClass).replaceAll("/", ".").replaceAll("\\.(java|groovy)$", "");
+    }
+
+    /**
+     * Returns the top-level classes declared by the given source file in the previous compilation.
+     */
+    public Collection<String> getClassNames(File sourceFile) {
+        Collection<String> classNames = declaredClasses.get(sourceFile);
+        if (classNames.isEmpty()) {
+            return Collections.singleton(getClassName(sourceFile));
+        }
+        return classNames;
+    }
+
+    /**
+     * Returns the path, relative to its source root, of the source file that declared the given class in the previous compilation,
+     * or null if that file is not known or is named after the class.
+     */
+    @Nullable
+    public String getDeclaringSourcePath(String className) {
+        File sourceFile = declaringSources.get(className);
+        return sourceFile == null ? null : getRelativePath(sourceFile);
+    }
+
+    private String getRelativePath(File sourceFile) {
         List<File> dirs = sourceDirs.getSourceRoots();
         for (File sourceDir : dirs) {
-            if (javaSourceClass.getAbsolutePath().startsWith(sourceDir.getAbsolutePath())) { //perf tweak only
-                String relativePath = RelativePathUtil.relativePath(sourceDir, javaSourceClass);
+            if (sourceFile.getAbsolutePath().startsWith(sourceDir.getAbsolutePath())) { //perf tweak only
+                String relativePath = RelativePathUtil.relativePath(sourceDir, sourceFile);
                 if (!relativePath.startsWith("..")) {
-                    return relativePath.replaceAll("/", ".").replaceAll("\\.java$", "");
+                    return relativePath;
                 }
             }
         }
         throw new IllegalArgumentException(format("Unable to find source java class: '%s' because it does not belong to any of the source dirs: '%s'",
-            javaSourceClass, dirs));
+            sourceFile, dirs));
 
     }
 }
@@ -67,7 +67,12 @@ class AggregatingProcessingStrategy extends IncrementalProcessingStrategy {
 
     @Override
     public void recordGeneratedType(CharSequence name, Element[] originatingElements) {
-        result.getGeneratedAggregatingTypes().add(name.toString());
+        Set<String> originatingTypes = ElementUtils.getTopLevelTypeNames(originatingElements);
+        if (originatingTypes.isEmpty()) {
+            result.getGeneratedAggregatingTypes().add(name.toString());
+        } else {
+            result.addGeneratedAggregatingType(name.toString(), originatingTypes);
+        }
     }
 
     @Override
@@ -75,8 +80,14 @@ class AggregatingProcessingStrategy extends IncrementalProcessingStrategy {
         GeneratedResource.Location resourceLocation = GeneratedResource.Location.from(location);
         if (resourceLocation == null) {
             result.setFullRebuildCause(location + " is not supported for incremental annotation processing");
+            return;
+        }
+        GeneratedResource generatedResource = new GeneratedResource(resourceLocation, pkg, relativeName);
+        Set<String> originatingTypes = ElementUtils.getTopLevelTypeNames(originatingElements);
+        if (originatingTypes.isEmpty()) {
+            result.getGeneratedAggregatingResources().add(generatedResource);
         } else {
-            result.getGeneratedAggregatingResources().add(new GeneratedResource(resourceLocation, pkg, relativeName));
+            result.addGeneratedAggregatingResource(generatedResource, originatingTypes);
         }
     }
 }
@@ -27,7 +27,7 @@ import javax.tools.JavaCompiler
 
 class DefaultJavaCompilerFactoryTest extends Specification {
     Factory<JavaCompiler> javaCompilerFinder = Mock()
-    def factory = new DefaultJavaCompilerFactory({ new File("daemon-work-dir") }, Mock(WorkerDaemonFactory), javaCompilerFinder, Mock(JavaForkOptionsFactory), Mock(ExecHandleFactory), Stub(AnnotationProcessorDetector))
+    def factory = new DefaultJavaCompilerFactory({ new File("daemon-work-dir") }, Mock(WorkerDaemonFactory), javaCompilerFinder, Mock(JavaForkOptionsFactory), Mock(ExecHandleFactory), Stub(AnnotationProcessorDetector), new JavacFileManagerReuse(false))
 
     def "creates in-process compiler when JavaCompileSpec is provided"() {
         expect:
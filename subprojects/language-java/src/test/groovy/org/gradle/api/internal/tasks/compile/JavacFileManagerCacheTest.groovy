@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.tools.JavaCompiler
+import javax.tools.StandardJavaFileManager
+import java.nio.charset.Charset
+
+class JavacFileManagerCacheTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def compiler = Mock(JavaCompiler)
+    def cache = new JavacFileManagerCache()
+    def charset = Charset.forName("UTF-8")
+
+    def "reuses file manager for compilations that differ only in per-task options"() {
+        def fileManager = Mock(StandardJavaFileManager)
+        def jar = tmpDir.file("lib.jar").createFile()
+
+        when:
+        def first = cache.acquire(compiler, charset, ["-d", "out1", "-classpath", "a", "-g"], [jar])
+        first.close()
+        def second = cache.acquire(compiler, charset, ["-d", "out2", "-classpath", "b", "-g"], [jar])
+
+        then:
+        1 * compiler.getStandardFileManager(null, null, charset) >> fileManager
+        second.fileManager.is(fileManager)
+        (1.._) * fileManager.setLocation(_, null)
+        0 * fileManager.close()
+    }
+
+    def "creates separate file managers for different shared options"() {
+        when:
+        def first = cache.acquire(compiler, charset, ["-g"], [])
+        first.close()
+        def second = cache.acquire(compiler, charset, ["-g:none"], [])
+
+        then:
+        2 * compiler.getStandardFileManager(null, null, charset) >> Mock(StandardJavaFileManager)
+        !second.fileManager.is(first.fileManager)
+    }
+
+    def "does not hand out a file manager that is in use"() {
+        when:
+        def first = cache.acquire(compiler, charset, [], [])
+        def second = cache.acquire(compiler, charset, [], [])
+
+        then:
+        2 * compiler.getStandardFileManager(null, null, charset) >> Mock(StandardJavaFileManager)
+        !second.fileManager.is(first.fileManager)
+    }
+
+    def "discards file manager when a jar it has opened changes"() {
+        def fileManager = Mock(StandardJavaFileManager)
+        def jar = tmpDir.file("lib.jar")
+        jar.text = "first"
+
+        when:
+        cache.acquire(compiler, charset, [], [jar]).close()
+        jar.text = "changed content"
+        def second = cache.acquire(compiler, charset, [], [jar])
+
+        then:
+        2 * compiler.getStandardFileManager(null, null, charset) >>> [fileManager, Mock(StandardJavaFileManager)]
+        1 * fileManager.close()
+        !second.fileManager.is(fileManager)
+    }
+
+    def "closes least recently used file managers when too many are idle"() {
+        def fileManagers = (1..5).collect { Mock(StandardJavaFileManager) }
+        compiler.getStandardFileManager(null, null, charset) >>> fileManagers
+
+        when:
+        def leases = (1..5).collect { cache.acquire(compiler, charset, ["-Aoption=" + it], []) }
+        leases.each { it.close() }
+
+        then:
+        cache.idleCount == 4
+        1 * fileManagers[0].close()
+        0 * fileManagers[1].close()
+        0 * fileManagers[4].close()
+    }
+
+    def "closes idle file managers but not those in use"() {
+        def idleFileManager = Mock(StandardJavaFileManager)
+        def inUseFileManager = Mock(StandardJavaFileManager)
+        compiler.getStandardFileManager(null, null, charset) >>> [idleFileManager, inUseFileManager]
+
+        when:
+        cache.acquire(compiler, charset, ["-g"], []).close()
+        def inUse = cache.acquire(compiler, charset, ["-g:none"], [])
+        cache.closeIdle()
+
+        then:
+        cache.idleCount == 0
+        1 * idleFileManager.close()
+        0 * inUseFileManager.close()
+
+        when:
+        inUse.close()
+
+        then:
+        cache.idleCount == 1
+    }
+}
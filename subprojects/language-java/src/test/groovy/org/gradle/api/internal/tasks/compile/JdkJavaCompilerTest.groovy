@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.api.file.ProjectLayout
+import org.gradle.api.tasks.compile.CompileOptions
+import org.gradle.internal.Factory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.Requires
+import org.gradle.util.TestPrecondition
+import org.gradle.util.TestUtil
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.tools.JavaCompiler
+import javax.tools.StandardJavaFileManager
+
+@Requires(TestPrecondition.JDK9_OR_LATER)
+class JdkJavaCompilerTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def javaCompiler = Mock(JavaCompiler)
+    def compilerFactory = Stub(Factory) {
+        create() >> javaCompiler
+    }
+
+    def cleanup() {
+        JavacFileManagerCache.current().closeIdle()
+    }
+
+    def "reuses file manager between compilations when reuse is enabled"() {
+        def fileManager = Mock(StandardJavaFileManager)
+        def compiler = new JdkJavaCompiler(compilerFactory, true)
+
+        when:
+        compiler.execute(spec("first"))
+        compiler.execute(spec("second"))
+
+        then:
+        1 * javaCompiler.getStandardFileManager(null, null, null) >> fileManager
+        2 * javaCompiler.getTask(*_) >> Stub(JavaCompiler.CompilationTask) {
+            call() >> true
+        }
+        0 * fileManager.close()
+
+        when:
+        new JavacFileManagerReuse(true).stop()
+
+        then:
+        1 * fileManager.close()
+    }
+
+    def "closes file manager after each compilation when reuse is disabled"() {
+        def compiler = new JdkJavaCompiler(compilerFactory, false)
+        def first = Mock(StandardJavaFileManager)
+        def second = Mock(StandardJavaFileManager)
+
+        when:
+        compiler.execute(spec("first"))
+        compiler.execute(spec("second"))
+
+        then:
+        2 * javaCompiler.getStandardFileManager(null, null, null) >>> [first, second]
+        2 * javaCompiler.getTask(*_) >> Stub(JavaCompiler.CompilationTask) {
+            call() >> true
+        }
+        1 * first.close()
+        1 * second.close()
+    }
+
+    def "releases file manager for reuse when compilation fails"() {
+        def fileManager = Mock(StandardJavaFileManager)
+        def compiler = new JdkJavaCompiler(compilerFactory, true)
+
+        when:
+        compiler.execute(spec("broken"))
+
+        then:
+        thrown(CompilationFailedException)
+        1 * javaCompiler.getStandardFileManager(null, null, null) >> fileManager
+        1 * javaCompiler.getTask(*_) >> Stub(JavaCompiler.CompilationTask) {
+            call() >> false
+        }
+        0 * fileManager.close()
+        JavacFileManagerCache.current().idleCount == 1
+    }
+
+    private DefaultJavaCompileSpec spec(String name) {
+        def spec = new DefaultJavaCompileSpec()
+        spec.tempDir = tmpDir.file("tmp")
+        spec.destinationDir = tmpDir.file(name)
+        spec.compileOptions = new CompileOptions(Stub(ProjectLayout), TestUtil.objectFactory())
+        spec.compileClasspath = [tmpDir.file("lib.jar").createFile()]
+        spec.sourceFiles = []
+        spec.annotationProcessorPath = []
+        spec.effectiveAnnotationProcessors = [] as Set
+        return spec
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.gradle.api.internal.tasks.compile.incremental
 
+import com.google.common.collect.ImmutableMultimap
 import org.gradle.api.internal.tasks.compile.incremental.recomp.CompilationSourceDirs
 import org.gradle.api.internal.tasks.compile.incremental.recomp.SourceToNameConverter
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -42,4 +43,23 @@ class SourceToNameConverterTest extends Specification {
         when: converter.getClassName(temp.file("src/main/unknown/Xxx.java"))
         then: thrown(IllegalArgumentException)
     }
+
+    def "knows groovy source class relative path"() {
+        expect:
+        converter.getClassName(temp.file("src/main/java/org/bar/Bar.groovy")) == "org.bar.Bar"
+        converter.getClassNames(temp.file("src/main/java/org/bar/Bar.groovy")) == ["org.bar.Bar"] as Set
+        converter.getDeclaringSourcePath("org.bar.Bar") == null
+    }
+
+    def "uses classes declared by source files in previous compilation"() {
+        def source = temp.file("src/main/java/org/bar/Bar.groovy")
+        def declaredClasses = ImmutableMultimap.of(source, "org.bar.Bar", source, "org.bar.Other")
+        def mappingConverter = new SourceToNameConverter(srcDirs, declaredClasses)
+
+        expect:
+        mappingConverter.getClassNames(source) as List == ["org.bar.Bar", "org.bar.Other"]
+        mappingConverter.getClassNames(temp.file("src/main/java/Foo.java")) as List == ["Foo"]
+        mappingConverter.getDeclaringSourcePath("org.bar.Other") == "org/bar/Bar.groovy"
+        mappingConverter.getDeclaringSourcePath("Foo") == null
+    }
 }
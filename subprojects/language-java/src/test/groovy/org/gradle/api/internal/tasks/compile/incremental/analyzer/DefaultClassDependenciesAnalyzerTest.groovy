@@ -104,6 +104,19 @@ class DefaultClassDependenciesAnalyzerTest extends Specification {
         analyze(SomeSourceAnnotation).dependencyToAll
     }
 
+    def "knows the ABI hash of classes that can be referenced"() {
+        def anonymousClass = new Runnable() {
+            void run() {
+            }
+        }.getClass()
+
+        expect:
+        analyze(SomeOtherClass).abiHash != null
+        analyze(SomeOtherClass).abiHash == analyze(SomeOtherClass).abiHash
+        analyze(SomeOtherClass).abiHash != analyze(YetAnotherClass).abiHash
+        analyze(anonymousClass).abiHash == null
+    }
+
     InputStream classStream(Class aClass) {
         aClass.classLoader.getResourceAsStream(aClass.getName().replace(".", "/") + ".class")
     }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.cache
+
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassAnalysisCache
+import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis
+import org.gradle.internal.Factory
+import org.gradle.internal.hash.HashCode
+import spock.lang.Specification
+import spock.lang.Subject
+
+class CountingClassAnalysisCacheTest extends Specification {
+    def delegate = Mock(ClassAnalysisCache)
+    def analysis = Stub(ClassAnalysis)
+    def factory = Mock(Factory)
+    @Subject cache = new CountingClassAnalysisCache(delegate)
+
+    def "counts requests that are served by the delegate as hits"() {
+        when:
+        def result = cache.get(HashCode.fromInt(1), factory)
+
+        then:
+        1 * delegate.get(HashCode.fromInt(1), _) >> analysis
+        0 * factory._
+        result == analysis
+        cache.requestCount == 1
+        cache.missCount == 0
+    }
+
+    def "counts requests that need to create the analysis as misses"() {
+        when:
+        cache.get(HashCode.fromInt(1), factory)
+        cache.get(HashCode.fromInt(2), factory)
+        cache.get(HashCode.fromInt(1), factory)
+
+        then:
+        1 * delegate.get(HashCode.fromInt(1), _) >> { HashCode key, Factory<ClassAnalysis> f -> f.create() }
+        1 * delegate.get(HashCode.fromInt(2), _) >> { HashCode key, Factory<ClassAnalysis> f -> f.create() }
+        1 * delegate.get(HashCode.fromInt(1), _) >> analysis
+        2 * factory.create() >> analysis
+        cache.requestCount == 3
+        cache.missCount == 2
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.cache
+
+import org.gradle.api.internal.cache.StringInterner
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassAnalysisCache
+import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis
+import org.gradle.api.invocation.Gradle
+import org.gradle.cache.CacheBuilder
+import org.gradle.cache.CacheRepository
+import org.gradle.cache.PersistentCache
+import org.gradle.cache.PersistentIndexedCache
+import org.gradle.cache.internal.InMemoryCacheDecoratorFactory
+import org.gradle.internal.Factory
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.snapshot.FileSystemSnapshotter
+import org.gradle.internal.snapshot.WellKnownFileLocations
+import spock.lang.Specification
+
+class DefaultGeneralCompileCachesTest extends Specification {
+    def buildScopedClassAnalysisStore = Mock(PersistentIndexedCache)
+    def userHomeClassAnalysisCache = Mock(ClassAnalysisCache)
+    def userHomeScopedCompileCaches = Stub(UserHomeScopedCompileCaches) {
+        getClassAnalysisCache() >> userHomeClassAnalysisCache
+    }
+    def persistentCache = Stub(PersistentCache) {
+        createCache({ it.cacheName == "classAnalysis" }) >> buildScopedClassAnalysisStore
+    }
+    def cacheBuilder = Stub(CacheBuilder)
+    def cacheRepository = Stub(CacheRepository) {
+        cache(_, "javaCompile") >> cacheBuilder
+    }
+    def hash = HashCode.fromInt(123)
+    def analysis = Stub(ClassAnalysis)
+    def factory = { analysis } as Factory<ClassAnalysis>
+    DefaultGeneralCompileCaches caches
+
+    def setup() {
+        cacheBuilder.withDisplayName(_) >> cacheBuilder
+        cacheBuilder.withLockOptions(_) >> cacheBuilder
+        cacheBuilder.open() >> persistentCache
+        caches = new DefaultGeneralCompileCaches(Stub(FileSystemSnapshotter), userHomeScopedCompileCaches, cacheRepository, Stub(Gradle), Stub(InMemoryCacheDecoratorFactory), Stub(WellKnownFileLocations), new StringInterner())
+    }
+
+    def "keeps class analysis of mutable locations in the build scoped cache"() {
+        when:
+        def result = caches.classAnalysisCache.get(hash, factory)
+
+        then:
+        1 * buildScopedClassAnalysisStore.get(hash) >> null
+        1 * buildScopedClassAnalysisStore.put(hash, analysis)
+        0 * userHomeClassAnalysisCache._
+        result == analysis
+    }
+
+    def "keeps class analysis of immutable locations in the user home cache"() {
+        when:
+        def result = caches.immutableClassAnalysisCache.get(hash, factory)
+
+        then:
+        1 * userHomeClassAnalysisCache.get(hash, _) >> analysis
+        0 * buildScopedClassAnalysisStore._
+        result == analysis
+    }
+}
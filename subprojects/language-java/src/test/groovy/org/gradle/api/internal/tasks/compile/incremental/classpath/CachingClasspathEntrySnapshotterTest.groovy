@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.classpath
+
+import org.gradle.api.file.ConfigurableFileTree
+import org.gradle.api.file.FileVisitor
+import org.gradle.api.internal.file.DefaultFileVisitDetails
+import org.gradle.api.internal.file.FileOperations
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassDependenciesAnalyzer
+import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis
+import org.gradle.internal.Factory
+import org.gradle.internal.hash.FileHasher
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.StreamHasher
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot
+import org.gradle.internal.snapshot.FileSystemSnapshotter
+import org.gradle.internal.snapshot.WellKnownFileLocations
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.UsesNativeServices
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+@UsesNativeServices
+class CachingClasspathEntrySnapshotterTest extends Specification {
+
+    @Rule TestNameTestDirectoryProvider temp = new TestNameTestDirectoryProvider()
+
+    def fileHasher = Mock(FileHasher)
+    def fileSystemSnapshotter = Stub(FileSystemSnapshotter) {
+        snapshot(_) >> Stub(FileSystemLocationSnapshot) {
+            getHash() >> HashCode.fromInt(123)
+        }
+    }
+    def analyzer = Mock(ClassDependenciesAnalyzer)
+    def immutableAnalyzer = Mock(ClassDependenciesAnalyzer)
+    def fileLocations = Mock(WellKnownFileLocations)
+    def cache = Mock(ClasspathEntrySnapshotCache)
+    def fileOperations = Mock(FileOperations)
+    @Subject snapshotter = new CachingClasspathEntrySnapshotter(fileHasher, Mock(StreamHasher), fileSystemSnapshotter, analyzer, immutableAnalyzer, fileLocations, cache, fileOperations)
+
+    @Unroll
+    def "analyzes classes of #location entry with the #usedAnalyzer analyzer"() {
+        def classFile = temp.createFile("entry/Foo.class")
+        def entry = temp.file("entry")
+        def classFileHash = HashCode.fromInt(1)
+        def classFileDetails = new DefaultFileVisitDetails(classFile, null, null)
+        def fileTree = Mock(ConfigurableFileTree)
+        def expectedAnalyzer = immutable ? immutableAnalyzer : analyzer
+        def otherAnalyzer = immutable ? analyzer : immutableAnalyzer
+
+        when:
+        def snapshot = snapshotter.createSnapshot(entry)
+
+        then:
+        1 * cache.get(entry, _) >> { File file, Factory<ClasspathEntrySnapshot> factory -> factory.create() }
+        1 * fileLocations.isImmutable(entry.path) >> immutable
+        1 * fileOperations.fileTree(entry) >> fileTree
+        1 * fileTree.visit(_) >> { FileVisitor visitor -> visitor.visitFile(classFileDetails) }
+        1 * fileHasher.hash(_) >> classFileHash
+        1 * expectedAnalyzer.getClassAnalysis(classFileHash, classFileDetails) >> Stub(ClassAnalysis) {
+            getClassName() >> "Foo"
+        }
+        0 * otherAnalyzer._
+
+        snapshot.hashes == ["Foo": classFileHash]
+
+        where:
+        location    | immutable | usedAnalyzer
+        "immutable" | true      | "immutable"
+        "mutable"   | false     | "build scoped"
+    }
+}
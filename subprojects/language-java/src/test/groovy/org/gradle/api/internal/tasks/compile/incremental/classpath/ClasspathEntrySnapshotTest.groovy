@@ -28,6 +28,10 @@ class ClasspathEntrySnapshotTest extends Specification {
         new ClasspathEntrySnapshot(new ClasspathEntrySnapshotData(HashCode.fromInt(0x1234), hashes, a))
     }
 
+    private ClasspathEntrySnapshot snapshot(Map<String, HashCode> hashes, Map<String, HashCode> abiHashes) {
+        new ClasspathEntrySnapshot(new ClasspathEntrySnapshotData(HashCode.fromInt(0x1234), hashes, abiHashes, analysis))
+    }
+
     private Set<String> altered(ClasspathEntrySnapshot s1, ClasspathEntrySnapshot s2) {
         s1.getChangedClassesSince(s2).modified
     }
@@ -68,4 +72,15 @@ class ClasspathEntrySnapshotTest extends Specification {
         s2.getChangedClassesSince(s1).added == [] as Set
         s1.getChangedClassesSince(s3).added == ["A", "B", "C"] as Set
     }
+
+    def "ignores changed classes whose ABI did not change"() {
+        ClasspathEntrySnapshot s1 = snapshot(["A": HashCode.fromInt(0xaa), "B": HashCode.fromInt(0xbb), "C\$1": HashCode.fromInt(0xcc)],
+            ["A": HashCode.fromInt(0x1a), "B": HashCode.fromInt(0x1b)])
+        ClasspathEntrySnapshot s2 = snapshot(["A": HashCode.fromInt(0xaaaa), "B": HashCode.fromInt(0xbbbb), "C\$1": HashCode.fromInt(0xcccc)],
+            ["A": HashCode.fromInt(0x1a), "B": HashCode.fromInt(0x2b)])
+
+        expect:
+        altered(s1, s2) == ["B"] as Set
+        altered(s2, s1) == ["B"] as Set
+    }
 }
@@ -27,6 +27,7 @@ import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis
 import org.gradle.internal.hash.FileHasher
 import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.StreamHasher
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.util.UsesNativeServices
 import org.junit.Rule
@@ -87,4 +88,37 @@ class DefaultClasspathEntrySnapshotterTest extends Specification {
         snapshot.hashes == ["Foo": f1Hash, "com.Foo2": f2Hash]
         snapshot.classAnalysis
     }
+
+    def "analyzes class files of a directory in parallel when given a build operation executor"() {
+        def parallelSnapshotter = new DefaultClasspathEntrySnapshotter(fileHasher, streamHasher, classDependenciesAnalyzer, fileOperations, new TestBuildOperationExecutor())
+        def f1 = temp.createFile("foo/Foo.class")
+        def f2 = temp.createFile("foo/com/Foo2.class")
+        def entry = temp.file("foo")
+        def f1Hash = HashCode.fromInt(1)
+        def f2Hash = HashCode.fromInt(2)
+        def f1Details = new DefaultFileVisitDetails(f1, null, null)
+        def f2Details = new DefaultFileVisitDetails(f2, null, null)
+        def fileTree = Mock(ConfigurableFileTree)
+
+        when:
+        def snapshot = parallelSnapshotter.createSnapshot(HashCode.fromInt(123), entry)
+
+        then:
+        1 * fileOperations.fileTree(entry) >> fileTree
+        1 * fileTree.visit(_) >> { FileVisitor visitor ->
+            visitor.visitFile(f1Details)
+            visitor.visitFile(f2Details)
+        }
+        1 * fileHasher.hash(f1Details) >> f1Hash
+        1 * fileHasher.hash(f2Details) >> f2Hash
+        1 * classDependenciesAnalyzer.getClassAnalysis(f1Hash, f1Details) >> Stub(ClassAnalysis) {
+            getClassName() >> "Foo"
+        }
+        1 * classDependenciesAnalyzer.getClassAnalysis(f2Hash, f2Details) >> { throw new RuntimeException("broken") }
+        0 * _._
+
+        and:
+        snapshot.hashes == ["Foo": f1Hash]
+        snapshot.data.classAnalysis.getDependents("Foo").description == "Foo2.class could not be analyzed for incremental compilation. See the debug log for more details"
+    }
 }
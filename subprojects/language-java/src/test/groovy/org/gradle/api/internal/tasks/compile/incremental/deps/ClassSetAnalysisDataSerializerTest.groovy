@@ -46,15 +46,32 @@ class ClassSetAnalysisDataSerializerTest extends Specification {
         ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(os.toByteArray())))
 
         then:
-        read.dependents.keySet() == data.dependents.keySet()
+        read.classNames == data.classNames
+        read.classes == data.classes
+        read.dependents == data.dependents
+        read.dependencyToAll == data.dependencyToAll
+        read.getConstants("C") == [1, 2] as Set
+        read.getConstants("D").empty
+        read.fullRebuildCause == "Because"
+    }
 
-        ["A", "B", "C"].each {
-            assert read.dependents[it].dependentClasses == data.dependents[it].dependentClasses
-            assert read.dependents[it].dependencyToAll == data.dependents[it].dependencyToAll
-        }
+    def "looks up dependents and constants by class"() {
+        def data = new ClassSetAnalysisData(["org.A", "org.B", "org.sub.C", "D", "org.package-info"] as Set,
+            ["org.A": dependentClasses("org.B", "org.sub.C"), "org.B": dependencyToAll("reason"), "Other": dependentClasses("D")],
+            ["org.A": new IntOpenHashSet([3]) as IntSet],
+            null
+        )
 
-        read.dependents["D"].dependencyToAll
-        read.classesToConstants == [C: [1,2] as Set, D: [] as Set]
-        read.fullRebuildCause == "Because"
+        expect:
+        data.getDependents("org.A").dependentClasses == ["org.B", "org.sub.C"] as Set
+        data.getDependents("org.B").dependencyToAll
+        data.getDependents("org.B").description == "reason"
+        data.getDependents("Other").dependentClasses == ["D"] as Set
+        data.getDependents("D").dependentClasses.empty
+        data.getDependents("Unknown").dependentClasses.empty
+        data.getDependents("org.package-info").dependentClasses == ["org.A", "org.B", "org.package-info"] as Set
+        data.getDependents("package-info").dependentClasses == ["D"] as Set
+        data.getConstants("org.A") == [3] as Set
+        data.getConstants("org.B").empty
     }
 }
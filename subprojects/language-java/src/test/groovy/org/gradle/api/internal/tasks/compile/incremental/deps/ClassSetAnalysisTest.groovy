@@ -172,6 +172,30 @@ class ClassSetAnalysisTest extends Specification {
         deps.dependentClasses == ["DependsOnAny", "B", "C"] as Set
     }
 
+    def "classes generated by aggregating processors depend on their originating classes and on the other aggregated classes"() {
+        def a = new ClassSetAnalysis(
+            new ClassSetAnalysisData(["A", "B", "Generated", "D"] as Set, ["A": empty(), "B": empty(), "Generated": dependentClasses("C"), "D": empty()], [:], null),
+            new AnnotationProcessingData([:], ["A", "B"] as Set, [] as Set, [:], [] as Set, ["A": ["Generated"] as Set], [:], null)
+        )
+
+        expect:
+        a.getRelevantDependents(["A"], IntSets.EMPTY_SET).dependentClasses == ["Generated", "C"] as Set
+        a.getRelevantDependents(["B"], IntSets.EMPTY_SET).dependentClasses == ["Generated", "C"] as Set
+        a.getRelevantDependents(["D"], IntSets.EMPTY_SET).dependentClasses.isEmpty()
+        a.getRelevantDependents(["Generated"], IntSets.EMPTY_SET).dependentClasses == ["C"] as Set
+    }
+
+    def "provides outputs of aggregating processors and their dependents for added classes"() {
+        def a = new ClassSetAnalysis(
+            new ClassSetAnalysisData(["A", "Generated"] as Set, ["A": empty(), "Generated": dependentClasses("C")], [:], null),
+            new AnnotationProcessingData([:], ["A"] as Set, [] as Set, [:], [] as Set, ["A": ["Generated"] as Set], [:], null)
+        )
+
+        expect:
+        a.dependentsOfAggregatingOutputs.dependentClasses == ["Generated", "C"] as Set
+        analysis([:]).dependentsOfAggregatingOutputs.dependentClasses.isEmpty()
+    }
+
     def "knows when any of the input classes is a dependency to all"() {
         def a = analysis([
             "A": dependentClasses("B"), "B": dependentClasses(),
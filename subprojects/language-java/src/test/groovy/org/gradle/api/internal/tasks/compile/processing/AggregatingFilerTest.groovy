@@ -46,7 +46,7 @@ class AggregatingFilerTest extends IncrementalFilerTest {
         !result.fullRebuildCause
     }
 
-    def "adds generated types to the processing result"() {
+    def "adds generated types to the processing result grouped by originating types"() {
         when:
         filer.createSourceFile("Foo", pkg("pkg"), type("A"), methodInside("B"))
         filer.createSourceFile("Bar", type("B"))
@@ -56,15 +56,33 @@ class AggregatingFilerTest extends IncrementalFilerTest {
 
         then:
         result.generatedTypesWithIsolatedOrigin.isEmpty()
-        result.generatedAggregatingTypes == ["Foo", "Bar"] as Set
+        result.generatedAggregatingTypes.isEmpty()
+        result.generatedAggregatingTypesWithOrigin == ["pkg.package-info": ["Foo"] as Set, "A": ["Foo"] as Set, "B": ["Foo", "Bar"] as Set]
 
         result.generatedResourcesWithIsolatedOrigin.isEmpty()
-        result.generatedAggregatingResources == [sourceResource("foo.txt"), sourceResource("bar.txt")] as Set
+        result.generatedAggregatingResources.isEmpty()
+        result.generatedAggregatingResourcesWithOrigin == [
+            "pkg.package-info": [sourceResource("foo.txt")] as Set,
+            "A": [sourceResource("foo.txt")] as Set,
+            "B": [sourceResource("foo.txt"), sourceResource("bar.txt")] as Set
+        ]
+    }
+
+    def "generated types without originating elements depend on all other types"() {
+        when:
+        filer.createSourceFile("Foo")
+        filer.createResource(StandardLocation.SOURCE_OUTPUT, "", "foo.txt")
+
+        then:
+        result.generatedAggregatingTypes == ["Foo"] as Set
+        result.generatedAggregatingTypesWithOrigin.isEmpty()
+        result.generatedAggregatingResources == [sourceResource("foo.txt")] as Set
+        result.generatedAggregatingResourcesWithOrigin.isEmpty()
     }
 
     def "handles resources in the three StandardLocation output locations"() {
         when:
-        filer.createResource(inputLocation, "com.enterprise.software", "foo.txt", type("A"))
+        filer.createResource(inputLocation, "com.enterprise.software", "foo.txt")
 
         then:
         result.generatedAggregatingResources == [new GeneratedResource(resultLocation, "com/enterprise/software/foo.txt")] as Set
@@ -78,9 +96,9 @@ class AggregatingFilerTest extends IncrementalFilerTest {
 
     def "resources with same path but different location are distinct"() {
         when:
-        filer.createResource(StandardLocation.SOURCE_OUTPUT,        "com.enterprise.software", "foo.txt", type("A"))
-        filer.createResource(StandardLocation.CLASS_OUTPUT,         "com.enterprise.software", "foo.txt", type("A"))
-        filer.createResource(StandardLocation.NATIVE_HEADER_OUTPUT, "com.enterprise.software", "foo.txt", type("A"))
+        filer.createResource(StandardLocation.SOURCE_OUTPUT,        "com.enterprise.software", "foo.txt")
+        filer.createResource(StandardLocation.CLASS_OUTPUT,         "com.enterprise.software", "foo.txt")
+        filer.createResource(StandardLocation.NATIVE_HEADER_OUTPUT, "com.enterprise.software", "foo.txt")
 
         then:
         result.generatedAggregatingResources == [GeneratedResource.Location.SOURCE_OUTPUT, GeneratedResource.Location.CLASS_OUTPUT, GeneratedResource.Location.NATIVE_HEADER_OUTPUT]
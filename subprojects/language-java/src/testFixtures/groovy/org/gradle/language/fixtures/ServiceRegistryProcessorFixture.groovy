@@ -26,11 +26,15 @@ import javax.tools.StandardLocation
  * and generates a single ServiceRegistry class from them. The registry has
  * one getter for each annotated type, which calls the no-argument constructor
  * of that type.
+ *
+ * By default, all annotated types are passed as originating elements of the generated files.
+ * Set {@link #originatingTypes} to only pass some of them.
  */
 @CompileStatic
 class ServiceRegistryProcessorFixture extends AnnotationProcessorFixture {
     boolean writeResources
     String resourceLocation = StandardLocation.CLASS_OUTPUT.toString()
+    List<String> originatingTypes
 
     ServiceRegistryProcessorFixture() {
         super("Service")
@@ -38,10 +42,17 @@ class ServiceRegistryProcessorFixture extends AnnotationProcessorFixture {
     }
 
     String getGeneratorCode() {
+        def originFilter = originatingTypes == null ? "true" : "Arrays.asList(${originatingTypes.collect { '"' + it + '"' }.join(', ')}).contains(((TypeElement) element).getQualifiedName().toString())"
         def baseCode = """
+List<Element> origins = new ArrayList<Element>();
+for (Element element : elements) {
+    if ($originFilter) {
+        origins.add(element);
+    }
+}
 String className = "ServiceRegistry";
 try {
-    JavaFileObject sourceFile = filer.createSourceFile(className, elements.toArray(new Element[0]));
+    JavaFileObject sourceFile = filer.createSourceFile(className, origins.toArray(new Element[0]));
     Writer writer = sourceFile.openWriter();
     try {
         writer.write("class " + className + " {");
@@ -62,7 +73,7 @@ try {
 """
         def resourceCode = writeResources ? """
     try {
-        FileObject resourceFile = filer.createResource($resourceLocation, \"\", className + \"Resource.txt\", elements.toArray(new Element[0]));
+        FileObject resourceFile = filer.createResource($resourceLocation, \"\", className + \"Resource.txt\", origins.toArray(new Element[0]));
         Writer writer = resourceFile.openWriter();
         try {
             for (Element element : elements) {
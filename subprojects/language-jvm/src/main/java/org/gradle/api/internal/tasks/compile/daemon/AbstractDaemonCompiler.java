@@ -16,6 +16,7 @@
 package org.gradle.api.internal.tasks.compile.daemon;
 
 import com.google.common.collect.Lists;
+import org.gradle.api.internal.tasks.compile.JvmLanguageCompileSpec;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.api.tasks.compile.BaseForkOptions;
 import org.gradle.internal.UncheckedException;
@@ -31,6 +32,9 @@ import org.gradle.workers.internal.Worker;
 import org.gradle.workers.internal.WorkerFactory;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 
@@ -66,6 +70,14 @@ public abstract class AbstractDaemonCompiler<T extends CompileSpec> implements C
 
     protected abstract DaemonForkOptions toDaemonForkOptions(T spec);
 
+    /**
+     * Returns the compile classpath of the given spec, used to route the compilation to a daemon that recently compiled against the same files.
+     */
+    protected static Iterable<File> affinityClasspath(JvmLanguageCompileSpec spec) {
+        List<File> compileClasspath = spec.getCompileClasspath();
+        return compileClasspath == null ? Collections.<File>emptyList() : compileClasspath;
+    }
+
     protected BaseForkOptions mergeForkOptions(BaseForkOptions left, BaseForkOptions right) {
         BaseForkOptions merged = new BaseForkOptions();
         merged.setMemoryInitialSize(mergeHeapSize(left.getMemoryInitialSize(), right.getMemoryInitialSize()));
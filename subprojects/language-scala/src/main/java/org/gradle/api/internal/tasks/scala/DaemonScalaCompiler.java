@@ -67,13 +67,21 @@ public class DaemonScalaCompiler<T extends ScalaJavaJointCompileSpec> extends Ab
         ScalaForkOptions scalaOptions = spec.getScalaCompileOptions().getForkOptions();
         JavaForkOptions javaForkOptions = new BaseForkOptionsConverter(forkOptionsFactory).transform(mergeForkOptions(javaOptions, scalaOptions));
         javaForkOptions.setWorkingDir(daemonWorkingDir);
+        if (!javaForkOptions.getSystemProperties().containsKey(ZincScalaCompilerUtil.ZINC_ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY)) {
+            javaForkOptions.systemProperty(ZincScalaCompilerUtil.ZINC_ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY, analysisCacheLimit());
+        }
 
         return new DaemonForkOptionsBuilder(forkOptionsFactory)
             .javaForkOptions(javaForkOptions)
             .classpath(zincClasspath)
             .sharedPackages(SHARED_PACKAGES)
             .keepAliveMode(KeepAliveMode.SESSION)
+            .affinityClasspath(affinityClasspath(spec))
             .build();
     }
+
+    private static int analysisCacheLimit() {
+        return Integer.getInteger(ZincScalaCompilerUtil.ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY, ZincScalaCompilerUtil.DEFAULT_ANALYSIS_CACHE_LIMIT);
+    }
 }
 
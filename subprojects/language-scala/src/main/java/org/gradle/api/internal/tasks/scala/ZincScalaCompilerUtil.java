@@ -23,4 +23,12 @@ public final class ZincScalaCompilerUtil {
     public static final String ZINC_CACHE_HOME_DIR_SYSTEM_PROPERTY = "org.gradle.zinc.home.dir";
     public static final String ZINC_DIR_SYSTEM_PROPERTY = "zinc.dir";
     public static final String ZINC_DIR_IGNORED_MESSAGE = "In order to guarantee parallel safe Scala compilation, Gradle does not support the '" + ZINC_DIR_SYSTEM_PROPERTY + "' system property and ignores any value provided.";
+
+    /**
+     * Number of Zinc analysis stores kept in memory by each compiler daemon. Zinc keys these by analysis file and fingerprint,
+     * so a hot daemon skips reading and deserializing the analysis of projects it has compiled before.
+     */
+    public static final String ZINC_ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY = "zinc.analysis.cache.limit";
+    public static final String ANALYSIS_CACHE_LIMIT_SYSTEM_PROPERTY = "org.gradle.internal.scala.zinc.analysis-cache-limit";
+    public static final int DEFAULT_ANALYSIS_CACHE_LIMIT = 20;
 }
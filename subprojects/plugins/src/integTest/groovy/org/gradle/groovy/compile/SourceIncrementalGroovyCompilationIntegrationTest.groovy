@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.groovy.compile
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.CompilationOutputsFixture
+
+class SourceIncrementalGroovyCompilationIntegrationTest extends AbstractIntegrationSpec {
+
+    CompilationOutputsFixture outputs
+
+    def setup() {
+        outputs = new CompilationOutputsFixture(file("build/classes"))
+
+        buildFile << """
+            apply plugin: 'groovy'
+
+            dependencies {
+                implementation localGroovy()
+            }
+
+            compileGroovy.options.incremental = true
+        """
+    }
+
+    private File source(String fileName, String text) {
+        def f = file("src/main/groovy/${fileName}")
+        f.createFile()
+        f.text = text
+        f
+    }
+
+    def "recompiles only the changed source and its dependents"() {
+        source "A.groovy", "class A {}"
+        source "B.groovy", "class B { A a }"
+        source "C.groovy", "class C {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        source "A.groovy", "class A { /* change */ }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'B'
+    }
+
+    def "does not recompile dependencies of the changed source"() {
+        source "A.groovy", "class A {}"
+        source "B.groovy", "class B { A a }"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        source "B.groovy", "class B { A a /* change */ }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'B'
+    }
+
+    def "recompiles all classes declared by a changed source that declares several top-level classes"() {
+        source "Multi.groovy", """
+            class A {}
+            class B {}
+        """
+        source "C.groovy", "class C { B b }"
+        source "D.groovy", "class D {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        source "Multi.groovy", """
+            class A { /* change */ }
+            class B {}
+        """
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'B', 'C'
+    }
+
+    def "recompiles the source that declares a class whose dependency changed"() {
+        source "Multi.groovy", """
+            class A { C c }
+            class B {}
+        """
+        source "C.groovy", "class C {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        source "C.groovy", "class C { /* change */ }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'B', 'C'
+    }
+
+    def "deletes the class dropped from a source that declares several top-level classes"() {
+        source "Multi.groovy", """
+            class A {}
+            class B {}
+        """
+        source "C.groovy", "class C {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        source "Multi.groovy", """
+            class A { /* change */ }
+        """
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A'
+        outputs.deletedClasses 'B'
+
+        when:
+        outputs.snapshot()
+        source "Multi.groovy", """
+            class A { /* another change */ }
+        """
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A'
+        outputs.deletedClasses()
+    }
+
+    def "detects deletion of an isolated source"() {
+        def a = source "A.groovy", """
+            class A {}
+            class OtherA {}
+        """
+        source "B.groovy", "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        assert a.delete()
+        run "compileGroovy"
+
+        then:
+        outputs.noneRecompiled()
+        outputs.deletedClasses 'A', 'OtherA'
+    }
+
+    def "detects deletion of a source that other classes depend on"() {
+        def a = source "A.groovy", "class A {}"
+        source "B.groovy", "class B { A a }"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        assert a.delete()
+
+        then:
+        fails "compileGroovy"
+        outputs.noneRecompiled()
+        outputs.deletedClasses 'A', 'B'
+    }
+
+    def "recompiles all sources when the source classes mapping is not available"() {
+        source "A.groovy", "class A {}"
+        source "B.groovy", "class B {}"
+        source "C.groovy", "class C {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        assert file("build/tmp/compileGroovy/source-classes-mapping.txt").delete()
+        source "A.groovy", "class A { /* change */ }"
+        run "compileGroovy", "--info"
+
+        then:
+        outputs.recompiledClasses 'A', 'B', 'C'
+        output.contains("Full recompilation is required because the source classes mapping of the previous compilation is not available.")
+
+        when:
+        outputs.snapshot()
+        source "B.groovy", "class B { /* change */ }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'B'
+    }
+
+    def "recompiles Groovy classes that depend on a changed Java class in joint compilation"() {
+        source "JavaA.java", "class JavaA {}"
+        source "B.groovy", "class B { JavaA a }"
+        source "C.groovy", "class C {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        source "JavaA.java", "class JavaA { /* change */ }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'JavaA', 'B'
+    }
+
+    def "recompiles Java classes that depend on a changed Groovy class in joint compilation"() {
+        source "A.groovy", "class A {}"
+        source "JavaB.java", "class JavaB { A a; }"
+        source "JavaC.java", "class JavaC {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        source "A.groovy", "class A { /* change */ }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'JavaB'
+    }
+}
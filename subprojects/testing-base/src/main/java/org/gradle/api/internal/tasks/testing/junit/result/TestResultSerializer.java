@@ -20,17 +20,31 @@ import org.gradle.api.Action;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.tasks.testing.TestResult;
 import org.gradle.internal.UncheckedException;
+import org.gradle.internal.io.RandomAccessFileInputStream;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
-import org.gradle.internal.serialize.FlushableEncoder;
 import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
 import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Stores test class results in a binary file. Results are appended one test class at a time while the tests execute,
+ * and are read back one test class at a time, so that neither requires holding all results in memory.
+ *
+ * <p>The results of a test class may be appended more than once, for example when output for a test class is received after
+ * its results have been written. Such results are merged when read.</p>
+ *
+ * <p>Each record starts with the id of its test class and the length of the remaining record, so that the records of each
+ * test class can be located without decoding the records of other test classes.</p>
+ */
 public class TestResultSerializer {
-    private static final int RESULT_VERSION = 3;
+    private static final int RESULT_VERSION = 5;
 
     private final File resultsFile;
 
@@ -39,32 +53,73 @@ public class TestResultSerializer {
     }
 
     public void write(Collection<TestClassResult> results) {
+        Writer writer = writer();
         try {
-            OutputStream outputStream = new FileOutputStream(resultsFile);
+            for (TestClassResult result : results) {
+                writer.write(result);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Starts writing the results, replacing any existing results.
+     */
+    public Writer writer() {
+        return new Writer();
+    }
+
+    public class Writer implements Closeable {
+        private final OutputStream outputStream;
+        private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+        private final KryoBackedEncoder recordEncoder = new KryoBackedEncoder(recordBuffer);
+        private KryoBackedEncoder encoder;
+
+        private Writer() {
+            try {
+                outputStream = new FileOutputStream(resultsFile);
+            } catch (FileNotFoundException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void write(TestClassResult classResult) {
             try {
-                if (!results.isEmpty()) { // only write if we have results, otherwise truncate
-                    FlushableEncoder encoder = new KryoBackedEncoder(outputStream);
+                if (encoder == null) { // only write the header once we have results, otherwise the file stays empty
+                    encoder = new KryoBackedEncoder(outputStream);
                     encoder.writeSmallInt(RESULT_VERSION);
-                    write(results, encoder);
-                    encoder.flush();
                 }
-            } finally {
-                outputStream.close();
+                recordBuffer.reset();
+                TestResultSerializer.write(classResult, recordEncoder);
+                recordEncoder.flush();
+                encoder.writeBoolean(true);
+                encoder.writeSmallLong(classResult.getId());
+                encoder.writeSmallInt(recordBuffer.size());
+                encoder.writeBytes(recordBuffer.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
         }
-    }
 
-    private void write(Collection<TestClassResult> results, Encoder encoder) throws IOException {
-        encoder.writeSmallInt(results.size());
-        for (TestClassResult result : results) {
-            write(result, encoder);
+        @Override
+        public void close() {
+            try {
+                try {
+                    if (encoder != null) {
+                        encoder.writeBoolean(false);
+                        encoder.flush();
+                    }
+                } finally {
+                    outputStream.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
 
-    private void write(TestClassResult classResult, Encoder encoder) throws IOException {
-        encoder.writeSmallLong(classResult.getId());
+    private static void write(TestClassResult classResult, Encoder encoder) throws IOException {
         encoder.writeString(classResult.getClassName());
         encoder.writeString(classResult.getClassDisplayName());
         encoder.writeLong(classResult.getStartTime());
@@ -74,7 +129,7 @@ public class TestResultSerializer {
         }
     }
 
-    private void write(TestMethodResult methodResult, Encoder encoder) throws IOException {
+    private static void write(TestMethodResult methodResult, Encoder encoder) throws IOException {
         encoder.writeSmallLong(methodResult.getId());
         encoder.writeString(methodResult.getName());
         encoder.writeString(methodResult.getDisplayName());
@@ -94,16 +149,12 @@ public class TestResultSerializer {
             return;
         }
         try {
-            InputStream inputStream = new FileInputStream(resultsFile);
+            Map<Long, List<Long>> offsets = readOffsets();
+            RandomAccessFile dataFile = new RandomAccessFile(resultsFile, "r");
             try {
-                Decoder decoder = new KryoBackedDecoder(inputStream);
-                int version = decoder.readSmallInt();
-                if (version != RESULT_VERSION) {
-                    throw new IllegalArgumentException(String.format("Unexpected result file version %d found in %s.", version, resultsFile));
-                }
-                readResults(decoder, visitor);
+                readResults(offsets, dataFile, visitor);
             } finally {
-                inputStream.close();
+                dataFile.close();
             }
         } catch (Exception e) {
             throw UncheckedException.throwAsUncheckedException(e);
@@ -114,16 +165,66 @@ public class TestResultSerializer {
         return resultsFile.exists() && resultsFile.length() > 0;
     }
 
-    private void readResults(Decoder decoder, Action<? super TestClassResult> visitor) throws ClassNotFoundException, IOException {
-        int classCount = decoder.readSmallInt();
-        for (int i = 0; i < classCount; i++) {
-            TestClassResult classResult = readClassResult(decoder);
+    /**
+     * Returns the file offsets of the results of each test class, in the order the test classes were first written.
+     */
+    private Map<Long, List<Long>> readOffsets() throws IOException, ClassNotFoundException {
+        Map<Long, List<Long>> offsets = new LinkedHashMap<Long, List<Long>>();
+        InputStream inputStream = new FileInputStream(resultsFile);
+        try {
+            KryoBackedDecoder decoder = new KryoBackedDecoder(inputStream);
+            readVersion(decoder);
+            while (decoder.readBoolean()) {
+                long id = decoder.readSmallLong();
+                int length = decoder.readSmallInt();
+                long offset = decoder.getReadPosition();
+                decoder.skipBytes(length);
+                List<Long> classOffsets = offsets.get(id);
+                if (classOffsets == null) {
+                    classOffsets = new ArrayList<Long>(1);
+                    offsets.put(id, classOffsets);
+                }
+                classOffsets.add(offset);
+            }
+        } finally {
+            inputStream.close();
+        }
+        return offsets;
+    }
+
+    private void readVersion(Decoder decoder) throws IOException {
+        int version = decoder.readSmallInt();
+        if (version != RESULT_VERSION) {
+            throw new IllegalArgumentException(String.format("Unexpected result file version %d found in %s.", version, resultsFile));
+        }
+    }
+
+    private void readResults(Map<Long, List<Long>> offsets, RandomAccessFile dataFile, Action<? super TestClassResult> visitor) throws ClassNotFoundException, IOException {
+        for (Map.Entry<Long, List<Long>> entry : offsets.entrySet()) {
+            TestClassResult classResult = null;
+            for (Long offset : entry.getValue()) {
+                dataFile.seek(offset);
+                TestClassResult result = readClassResult(entry.getKey(), new KryoBackedDecoder(new RandomAccessFileInputStream(dataFile)));
+                if (classResult == null) {
+                    classResult = result;
+                } else {
+                    merge(classResult, result);
+                }
+            }
             visitor.execute(classResult);
         }
     }
 
-    private TestClassResult readClassResult(Decoder decoder) throws IOException, ClassNotFoundException {
-        long id = decoder.readSmallLong();
+    private static void merge(TestClassResult classResult, TestClassResult laterResult) {
+        if (classResult.getStartTime() == 0) {
+            classResult.setStartTime(laterResult.getStartTime());
+        }
+        for (TestMethodResult methodResult : laterResult.getResults()) {
+            classResult.add(methodResult);
+        }
+    }
+
+    private TestClassResult readClassResult(long id, Decoder decoder) throws IOException, ClassNotFoundException {
         String className = decoder.readString();
         String classDisplayName = decoder.readString();
         long startTime = decoder.readLong();
@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.tasks.testing.processors;
 
+import org.gradle.api.internal.tasks.testing.DefaultTestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
@@ -28,15 +29,24 @@ import org.gradle.internal.dispatch.DispatchException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Manages a set of parallel TestClassProcessors. Uses a simple round-robin algorithm to assign test classes to
  * processors.
+ *
+ * <p>When work stealing is enabled, test classes are instead queued up and each processor takes the next test class from the queue
+ * as soon as it has processed the previous one. This requires the processors to block in {@link TestClassProcessor#processTestClass(TestClassRunInfo)}
+ * until they are ready to process another test class.</p>
  */
 public class MaxNParallelTestClassProcessor implements TestClassProcessor {
+    private static final TestClassRunInfo END_OF_INPUT = new DefaultTestClassRunInfo("<end of input>");
     private final int maxProcessors;
     private final Factory<TestClassProcessor> factory;
     private final ActorFactory actorFactory;
+    private final boolean workStealing;
+    private final BlockingQueue<TestClassRunInfo> pendingTestClasses = new LinkedBlockingQueue<TestClassRunInfo>();
     private TestResultProcessor resultProcessor;
     private int pos;
     private List<TestClassProcessor> processors = new ArrayList<TestClassProcessor>();
@@ -46,9 +56,14 @@ public class MaxNParallelTestClassProcessor implements TestClassProcessor {
     private volatile boolean stoppedNow;
 
     public MaxNParallelTestClassProcessor(int maxProcessors, Factory<TestClassProcessor> factory, ActorFactory actorFactory) {
+        this(maxProcessors, factory, actorFactory, false);
+    }
+
+    public MaxNParallelTestClassProcessor(int maxProcessors, Factory<TestClassProcessor> factory, ActorFactory actorFactory, boolean workStealing) {
         this.maxProcessors = maxProcessors;
         this.factory = factory;
         this.actorFactory = actorFactory;
+        this.workStealing = workStealing;
     }
 
     @Override
@@ -64,6 +79,14 @@ public class MaxNParallelTestClassProcessor implements TestClassProcessor {
             return;
         }
 
+        if (workStealing) {
+            pendingTestClasses.add(testClass);
+            if (rawProcessors.size() < maxProcessors) {
+                startPullingProcessor();
+            }
+            return;
+        }
+
         TestClassProcessor processor;
         if (processors.size() < maxProcessors) {
             processor = factory.create();
@@ -80,8 +103,22 @@ public class MaxNParallelTestClassProcessor implements TestClassProcessor {
         processor.processTestClass(testClass);
     }
 
+    private void startPullingProcessor() {
+        TestClassProcessor processor = factory.create();
+        rawProcessors.add(processor);
+        processor.startProcessing(resultProcessor);
+        Actor actor = actorFactory.createActor(new TestClassPuller(processor));
+        actors.add(actor);
+        actor.getProxy(Runnable.class).run();
+    }
+
     @Override
     public void stop() {
+        if (workStealing) {
+            for (int i = 0; i < actors.size(); i++) {
+                pendingTestClasses.add(END_OF_INPUT);
+            }
+        }
         try {
             CompositeStoppable.stoppable(processors).add(actors).add(resultProcessorActor).stop();
         } catch (DispatchException e) {
@@ -92,8 +129,35 @@ public class MaxNParallelTestClassProcessor implements TestClassProcessor {
     @Override
     public void stopNow() {
         stoppedNow = true;
+        pendingTestClasses.clear();
         for (TestClassProcessor processor : rawProcessors) {
             processor.stopNow();
         }
     }
+
+    /**
+     * Feeds a processor with test classes from the shared queue, until the end of the input is reached.
+     */
+    private class TestClassPuller implements Runnable {
+        private final TestClassProcessor processor;
+
+        TestClassPuller(TestClassProcessor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public void run() {
+            try {
+                TestClassRunInfo testClass = pendingTestClasses.take();
+                while (testClass != END_OF_INPUT) {
+                    processor.processTestClass(testClass);
+                    testClass = pendingTestClasses.take();
+                }
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            } finally {
+                processor.stop();
+            }
+        }
+    }
 }
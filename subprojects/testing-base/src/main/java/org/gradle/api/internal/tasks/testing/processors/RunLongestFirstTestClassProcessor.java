@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.processors;
+
+import org.gradle.api.internal.tasks.testing.TestClassProcessor;
+import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Passes test classes to its delegate ordered by their duration in the previous execution, longest first, so that
+ * the slow test classes do not all end up at the tail of a parallel test run. Test classes without a recorded
+ * duration are considered to be the longest ones, and keep their discovery order.
+ */
+public class RunLongestFirstTestClassProcessor implements TestClassProcessor {
+    private final Map<String, Long> previousTestClassDurations;
+    private final TestClassProcessor delegate;
+    private final List<TestClassRunInfo> testClasses = new ArrayList<TestClassRunInfo>();
+
+    public RunLongestFirstTestClassProcessor(Map<String, Long> previousTestClassDurations, TestClassProcessor delegate) {
+        this.previousTestClassDurations = previousTestClassDurations;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void startProcessing(TestResultProcessor resultProcessor) {
+        delegate.startProcessing(resultProcessor);
+    }
+
+    @Override
+    public void processTestClass(TestClassRunInfo testClass) {
+        testClasses.add(testClass);
+    }
+
+    @Override
+    public void stop() {
+        // Collections.sort() is stable, so classes with equal durations keep their discovery order
+        Collections.sort(testClasses, new Comparator<TestClassRunInfo>() {
+            @Override
+            public int compare(TestClassRunInfo o1, TestClassRunInfo o2) {
+                long duration1 = durationOf(o1);
+                long duration2 = durationOf(o2);
+                return duration1 > duration2 ? -1 : (duration1 == duration2 ? 0 : 1);
+            }
+        });
+        for (TestClassRunInfo testClass : testClasses) {
+            delegate.processTestClass(testClass);
+        }
+        delegate.stop();
+    }
+
+    private long durationOf(TestClassRunInfo testClass) {
+        Long duration = previousTestClassDurations.get(testClass.getTestClassName());
+        return duration == null ? Long.MAX_VALUE : duration;
+    }
+
+    @Override
+    public void stopNow() {
+        delegate.stopNow();
+    }
+}
@@ -23,6 +23,9 @@ import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
 import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.remote.ObjectConnection;
 import org.gradle.internal.work.WorkerLeaseRegistry;
 import org.gradle.process.JavaForkOptions;
@@ -32,12 +35,25 @@ import org.gradle.process.internal.worker.WorkerProcessBuilder;
 import org.gradle.process.internal.worker.WorkerProcessFactory;
 import org.gradle.util.CollectionUtils;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.net.URL;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Processes test classes in a forked worker process.
+ *
+ * <p>When created to request test classes, {@link #processTestClass(TestClassRunInfo)} blocks until the worker has processed the
+ * test class and asks for the next one. This allows the caller to hand out test classes to whichever worker becomes idle first.</p>
+ *
+ * <p>When created with a {@link TestWorkerProcessPool}, the worker process is taken from the pool if a compatible one is idle, and is
+ * returned to the pool at the end of the run instead of being stopped. Each run loads its classes into its own class loaders.</p>
+ */
 public class ForkingTestClassProcessor implements TestClassProcessor {
     private final WorkerLeaseRegistry.WorkerLease currentWorkerLease;
     private final WorkerProcessFactory workerFactory;
@@ -46,15 +62,27 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
     private final Iterable<File> classPath;
     private final Action<WorkerProcessBuilder> buildConfigAction;
     private final ModuleRegistry moduleRegistry;
+    private final boolean requestTestClasses;
+    private final TestWorkerProcessPool workerProcessPool;
     private final Lock lock = new ReentrantLock();
+    private TestClassRequests testClassRequests;
     private RemoteTestClassProcessor remoteProcessor;
     private WorkerProcess workerProcess;
+    private ReusableTestWorkerProcess reusableWorkerProcess;
     private TestResultProcessor resultProcessor;
     private WorkerLeaseRegistry.WorkerLeaseCompletion completion;
     private DocumentationRegistry documentationRegistry;
     private boolean stoppedNow;
 
     public ForkingTestClassProcessor(WorkerLeaseRegistry.WorkerLease parentWorkerLease, WorkerProcessFactory workerFactory, WorkerTestClassProcessorFactory processorFactory, JavaForkOptions options, Iterable<File> classPath, Action<WorkerProcessBuilder> buildConfigAction, ModuleRegistry moduleRegistry, DocumentationRegistry documentationRegistry) {
+        this(parentWorkerLease, workerFactory, processorFactory, options, classPath, buildConfigAction, moduleRegistry, documentationRegistry, false, null);
+    }
+
+    public ForkingTestClassProcessor(WorkerLeaseRegistry.WorkerLease parentWorkerLease, WorkerProcessFactory workerFactory, WorkerTestClassProcessorFactory processorFactory, JavaForkOptions options, Iterable<File> classPath, Action<WorkerProcessBuilder> buildConfigAction, ModuleRegistry moduleRegistry, DocumentationRegistry documentationRegistry, boolean requestTestClasses) {
+        this(parentWorkerLease, workerFactory, processorFactory, options, classPath, buildConfigAction, moduleRegistry, documentationRegistry, requestTestClasses, null);
+    }
+
+    public ForkingTestClassProcessor(WorkerLeaseRegistry.WorkerLease parentWorkerLease, WorkerProcessFactory workerFactory, WorkerTestClassProcessorFactory processorFactory, JavaForkOptions options, Iterable<File> classPath, Action<WorkerProcessBuilder> buildConfigAction, ModuleRegistry moduleRegistry, DocumentationRegistry documentationRegistry, boolean requestTestClasses, @Nullable TestWorkerProcessPool workerProcessPool) {
         this.currentWorkerLease = parentWorkerLease;
         this.workerFactory = workerFactory;
         this.processorFactory = processorFactory;
@@ -63,6 +91,8 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
         this.buildConfigAction = buildConfigAction;
         this.moduleRegistry = moduleRegistry;
         this.documentationRegistry = documentationRegistry;
+        this.requestTestClasses = requestTestClasses;
+        this.workerProcessPool = workerProcessPool;
     }
 
     @Override
@@ -81,7 +111,7 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
             if (remoteProcessor == null) {
                 completion = currentWorkerLease.startChild();
                 try {
-                    remoteProcessor = forkProcess();
+                    remoteProcessor = workerProcessPool == null ? forkProcess() : startReusableProcess();
                 } catch (RuntimeException e) {
                     completion.leaseFinish();
                     completion = null;
@@ -93,30 +123,97 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
         } finally {
             lock.unlock();
         }
+
+        if (testClassRequests != null) {
+            testClassRequests.awaitNextRequest();
+        }
     }
 
     RemoteTestClassProcessor forkProcess() {
-        WorkerProcessBuilder builder = workerFactory.create(new TestWorker(processorFactory));
-        builder.setBaseName("Gradle Test Executor");
-        builder.setImplementationClasspath(getTestWorkerImplementationClasspath());
-        builder.applicationClasspath(classPath);
-        options.copyTo(builder.getJavaCommand());
-        builder.getJavaCommand().jvmArgs("-Dorg.gradle.native=false");
-        buildConfigAction.execute(builder);
-
-        workerProcess = builder.build();
-        workerProcess.start();
+        workerProcess = startWorkerProcess(createWorkerProcessBuilder(new TestWorker(processorFactory, requestTestClasses), getTestWorkerImplementationClasspath(), classPath));
+        testClassRequests = requestTestClasses ? new TestClassRequests() : null;
 
         ObjectConnection connection = workerProcess.getConnection();
         connection.useParameterSerializers(TestEventSerializer.create());
         connection.addIncoming(TestResultProcessor.class, resultProcessor);
+        if (testClassRequests != null) {
+            connection.addIncoming(RemoteTestClassSource.class, testClassRequests);
+        }
         RemoteTestClassProcessor remoteProcessor = connection.addOutgoing(RemoteTestClassProcessor.class);
         connection.connect();
         remoteProcessor.startProcessing();
         return remoteProcessor;
     }
 
+    /**
+     * Starts a run in a reusable worker process. The worker process is started without an application classpath, as it loads the
+     * test runtime classpath and the test framework implementation classes of each run into class loaders that are discarded at the
+     * end of the run.
+     */
+    RemoteTestClassProcessor startReusableProcess() {
+        List<URL> implementationClasspath = getReusableTestWorkerImplementationClasspath();
+        WorkerProcessBuilder builder = createWorkerProcessBuilder(new TestWorker(null, requestTestClasses, true), implementationClasspath, Collections.<File>emptyList());
+        HashCode key = getWorkerProcessKey(implementationClasspath);
+        reusableWorkerProcess = workerProcessPool.reserveIdleWorkerProcess(key);
+        if (reusableWorkerProcess == null) {
+            reusableWorkerProcess = new ReusableTestWorkerProcess(key, startWorkerProcess(builder), requestTestClasses);
+        }
+        workerProcess = reusableWorkerProcess.getWorkerProcess();
+        testClassRequests = reusableWorkerProcess.getTestClassRequests();
+        TestWorkerRunSpec run = new TestWorkerRunSpec(classPath, getTestFrameworkImplementationClasspath(), builder.getSharedPackages(), processorFactory);
+        return reusableWorkerProcess.startRun(run, resultProcessor);
+    }
+
+    private WorkerProcessBuilder createWorkerProcessBuilder(TestWorker testWorker, List<URL> implementationClasspath, Iterable<File> applicationClasspath) {
+        WorkerProcessBuilder builder = workerFactory.create(testWorker);
+        builder.setBaseName("Gradle Test Executor");
+        builder.setImplementationClasspath(implementationClasspath);
+        builder.applicationClasspath(applicationClasspath);
+        options.copyTo(builder.getJavaCommand());
+        builder.getJavaCommand().jvmArgs("-Dorg.gradle.native=false");
+        buildConfigAction.execute(builder);
+        return builder;
+    }
+
+    private static WorkerProcess startWorkerProcess(WorkerProcessBuilder builder) {
+        WorkerProcess workerProcess = builder.build();
+        workerProcess.start();
+        return workerProcess;
+    }
+
+    /**
+     * A worker process can be reused by test runs that start it with the same JVM options. The application classpath is not part of the key,
+     * as each run loads it into its own class loader.
+     */
+    private HashCode getWorkerProcessKey(List<URL> implementationClasspath) {
+        Hasher hasher = Hashing.newHasher();
+        hasher.putBoolean(requestTestClasses);
+        hasher.putString(String.valueOf(options.getExecutable()));
+        hasher.putString(String.valueOf(options.getWorkingDir()));
+        for (String jvmArg : options.getAllJvmArgs()) {
+            hasher.putString(jvmArg);
+        }
+        for (Map.Entry<String, Object> entry : new TreeMap<String, Object>(options.getEnvironment()).entrySet()) {
+            hasher.putString(entry.getKey());
+            hasher.putString(String.valueOf(entry.getValue()));
+        }
+        for (URL url : implementationClasspath) {
+            hasher.putString(url.toString());
+        }
+        return hasher.hash();
+    }
+
     List<URL> getTestWorkerImplementationClasspath() {
+        return CollectionUtils.flattenCollections(URL.class,
+            getReusableTestWorkerImplementationClasspath(),
+            getTestFrameworkImplementationClasspath()
+        );
+    }
+
+    /**
+     * The implementation classes that do not refer to any test framework, and so can be shared by all runs of a reusable worker process.
+     */
+    private List<URL> getReusableTestWorkerImplementationClasspath() {
         return CollectionUtils.flattenCollections(URL.class,
             moduleRegistry.getModule("gradle-core-api").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getModule("gradle-core").getImplementationClasspath().getAsURLs(),
@@ -126,17 +223,25 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
             moduleRegistry.getModule("gradle-cli").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getModule("gradle-native").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getModule("gradle-testing-base").getImplementationClasspath().getAsURLs(),
-            moduleRegistry.getModule("gradle-testing-jvm").getImplementationClasspath().getAsURLs(),
-            moduleRegistry.getModule("gradle-testing-junit-platform").getImplementationClasspath().getAsURLs(),
-            moduleRegistry.getExternalModule("junit-platform-engine").getImplementationClasspath().getAsURLs(),
-            moduleRegistry.getExternalModule("junit-platform-launcher").getImplementationClasspath().getAsURLs(),
-            moduleRegistry.getExternalModule("junit-platform-commons").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getModule("gradle-process-services").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getExternalModule("slf4j-api").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getExternalModule("jul-to-slf4j").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getExternalModule("native-platform").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getExternalModule("kryo").getImplementationClasspath().getAsURLs(),
-            moduleRegistry.getExternalModule("commons-lang").getImplementationClasspath().getAsURLs(),
+            moduleRegistry.getExternalModule("commons-lang").getImplementationClasspath().getAsURLs()
+        );
+    }
+
+    /**
+     * The implementation classes that refer to test framework classes, which are taken from the application classpath when present.
+     */
+    private List<URL> getTestFrameworkImplementationClasspath() {
+        return CollectionUtils.flattenCollections(URL.class,
+            moduleRegistry.getModule("gradle-testing-jvm").getImplementationClasspath().getAsURLs(),
+            moduleRegistry.getModule("gradle-testing-junit-platform").getImplementationClasspath().getAsURLs(),
+            moduleRegistry.getExternalModule("junit-platform-engine").getImplementationClasspath().getAsURLs(),
+            moduleRegistry.getExternalModule("junit-platform-launcher").getImplementationClasspath().getAsURLs(),
+            moduleRegistry.getExternalModule("junit-platform-commons").getImplementationClasspath().getAsURLs(),
             moduleRegistry.getExternalModule("junit").getImplementationClasspath().getAsURLs()
         );
     }
@@ -153,7 +258,11 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
                 } finally {
                     lock.unlock();
                 }
-                workerProcess.waitForStop();
+                if (reusableWorkerProcess != null && !stoppedNow && reusableWorkerProcess.awaitRunCompletion()) {
+                    workerProcessPool.release(reusableWorkerProcess);
+                } else {
+                    workerProcess.waitForStop();
+                }
             }
         } catch (ExecException e) {
             if (!stoppedNow) {
@@ -180,5 +289,8 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
         } finally {
             lock.unlock();
         }
+        if (testClassRequests != null) {
+            testClassRequests.endStream();
+        }
     }
 }
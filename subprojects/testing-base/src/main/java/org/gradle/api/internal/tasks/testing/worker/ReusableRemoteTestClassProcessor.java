@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+/**
+ * A {@link RemoteTestClassProcessor} in a test worker that is kept alive to execute several test runs, one after the other.
+ * Each run starts with {@link #startRun(WorkerTestClassProcessorFactory)} and ends with {@link #stop()}.
+ */
+public interface ReusableRemoteTestClassProcessor extends RemoteTestClassProcessor {
+    /**
+     * Starts a new test run, loading the classes of the run in class loaders that are discarded once the run has been stopped. Does not block.
+     */
+    void startRun(TestWorkerRunSpec run);
+
+    /**
+     * Stops the worker once the current run has been stopped. Does not block.
+     */
+    void shutdown();
+}
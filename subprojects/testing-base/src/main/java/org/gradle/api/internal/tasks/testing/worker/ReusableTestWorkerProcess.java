@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.dispatch.StreamCompletion;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.remote.ObjectConnection;
+import org.gradle.process.internal.worker.WorkerProcess;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A test worker process that executes several test runs one after the other, for test tasks that use the same worker configuration.
+ */
+class ReusableTestWorkerProcess implements Stoppable {
+    private final HashCode key;
+    private final WorkerProcess workerProcess;
+    private final TestClassRequests testClassRequests;
+    private final RunResultProcessor runResultProcessor = new RunResultProcessor();
+    private final ReusableRemoteTestClassProcessor remoteProcessor;
+
+    ReusableTestWorkerProcess(HashCode key, WorkerProcess workerProcess, boolean requestTestClasses) {
+        this.key = key;
+        this.workerProcess = workerProcess;
+        this.testClassRequests = requestTestClasses ? new TestClassRequests() : null;
+
+        ObjectConnection connection = workerProcess.getConnection();
+        connection.useParameterSerializers(TestEventSerializer.create());
+        connection.addIncoming(TestResultProcessor.class, runResultProcessor);
+        if (testClassRequests != null) {
+            connection.addIncoming(RemoteTestClassSource.class, testClassRequests);
+        }
+        remoteProcessor = connection.addOutgoing(ReusableRemoteTestClassProcessor.class);
+        connection.connect();
+    }
+
+    HashCode getKey() {
+        return key;
+    }
+
+    WorkerProcess getWorkerProcess() {
+        return workerProcess;
+    }
+
+    @Nullable
+    TestClassRequests getTestClassRequests() {
+        return testClassRequests;
+    }
+
+    boolean isConnected() {
+        return !runResultProcessor.disconnected;
+    }
+
+    /**
+     * Starts a new test run, whose results are forwarded to the given result processor.
+     */
+    RemoteTestClassProcessor startRun(TestWorkerRunSpec run, TestResultProcessor resultProcessor) {
+        runResultProcessor.startRun(resultProcessor);
+        remoteProcessor.startRun(run);
+        return remoteProcessor;
+    }
+
+    /**
+     * Waits for all results of the current run to be received, once the run has been stopped.
+     *
+     * @return false when the worker process disconnected before completing the run.
+     */
+    boolean awaitRunCompletion() {
+        return runResultProcessor.awaitRunCompletion();
+    }
+
+    @Override
+    public void stop() {
+        if (isConnected()) {
+            remoteProcessor.shutdown();
+        }
+        workerProcess.waitForStop();
+    }
+
+    /**
+     * Forwards the results to the processor of the current run. The run is complete once the worker suite that was started first has completed.
+     */
+    private static class RunResultProcessor implements TestResultProcessor, StreamCompletion {
+        private volatile TestResultProcessor delegate;
+        private volatile CountDownLatch runCompleted;
+        private volatile boolean disconnected;
+        private Object workerSuiteId;
+
+        void startRun(TestResultProcessor delegate) {
+            this.delegate = delegate;
+            this.workerSuiteId = null;
+            this.runCompleted = new CountDownLatch(1);
+            if (disconnected) {
+                runCompleted.countDown();
+            }
+        }
+
+        boolean awaitRunCompletion() {
+            try {
+                runCompleted.await();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            return !disconnected;
+        }
+
+        @Override
+        public void started(TestDescriptorInternal test, TestStartEvent event) {
+            if (workerSuiteId == null && event.getParentId() == null) {
+                workerSuiteId = test.getId();
+            }
+            delegate.started(test, event);
+        }
+
+        @Override
+        public void completed(Object testId, TestCompleteEvent event) {
+            delegate.completed(testId, event);
+            if (testId.equals(workerSuiteId)) {
+                runCompleted.countDown();
+            }
+        }
+
+        @Override
+        public void output(Object testId, TestOutputEvent event) {
+            delegate.output(testId, event);
+        }
+
+        @Override
+        public void failure(Object testId, Throwable result) {
+            delegate.failure(testId, result);
+        }
+
+        @Override
+        public void endStream() {
+            disconnected = true;
+            CountDownLatch runCompleted = this.runCompleted;
+            if (runCompleted != null) {
+                runCompleted.countDown();
+            }
+        }
+    }
+}
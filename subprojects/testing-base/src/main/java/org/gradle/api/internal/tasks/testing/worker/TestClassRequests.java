@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.internal.dispatch.StreamCompletion;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Receives the requests for test classes from the worker. Once the worker has disconnected, no longer waits for requests.
+ */
+class TestClassRequests implements RemoteTestClassSource, StreamCompletion {
+    private final Semaphore requests = new Semaphore(0);
+    private volatile boolean ended;
+
+    @Override
+    public void requestTestClass() {
+        requests.release();
+    }
+
+    @Override
+    public void endStream() {
+        ended = true;
+        requests.release();
+    }
+
+    void awaitNextRequest() {
+        if (!ended) {
+            requests.acquireUninterruptibly();
+        }
+    }
+}
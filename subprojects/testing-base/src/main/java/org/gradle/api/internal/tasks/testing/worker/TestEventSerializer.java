@@ -37,6 +37,7 @@ public class TestEventSerializer {
         registry.register(TestCompleteEvent.class, new TestCompleteEventSerializer());
         registry.register(DefaultTestOutputEvent.class, new DefaultTestOutputEventSerializer());
         registry.register(Throwable.class, factory.getSerializerFor(Throwable.class));
+        registry.useJavaSerialization(TestWorkerRunSpec.class);
         return registry;
     }
 
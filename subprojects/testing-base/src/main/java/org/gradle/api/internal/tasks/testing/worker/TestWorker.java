@@ -24,6 +24,10 @@ import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.actor.ActorFactory;
 import org.gradle.internal.actor.internal.DefaultActorFactory;
+import org.gradle.internal.classloader.ClassLoaderUtils;
+import org.gradle.internal.classloader.FilteringClassLoader;
+import org.gradle.internal.classloader.MultiParentClassLoader;
+import org.gradle.internal.classpath.DefaultClassPath;
 import org.gradle.internal.concurrent.DefaultExecutorFactory;
 import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.concurrent.Stoppable;
@@ -39,32 +43,69 @@ import org.gradle.process.internal.worker.WorkerProcessContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.io.File;
 import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.security.AccessControlException;
+import java.util.List;
+import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
 
-public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClassProcessor, Serializable, Stoppable {
+public class TestWorker implements Action<WorkerProcessContext>, ReusableRemoteTestClassProcessor, Serializable, Stoppable {
     private static final Logger LOGGER = LoggerFactory.getLogger(TestWorker.class);
     public static final String WORKER_ID_SYS_PROPERTY = "org.gradle.test.worker";
     private final WorkerTestClassProcessorFactory factory;
+    private final boolean requestTestClasses;
+    private final boolean reusable;
     private CountDownLatch completed;
+    private WorkerProcessContext workerProcessContext;
+    private ServiceRegistry testServices;
+    private SecurityManager securityManager;
+    private Properties systemProperties;
+    private URLClassLoader runApplicationClassLoader;
+    private URLClassLoader runTestFrameworkClassLoader;
     private TestClassProcessor processor;
     private TestResultProcessor resultProcessor;
+    private RemoteTestClassSource testClassSource;
 
     public TestWorker(WorkerTestClassProcessorFactory factory) {
+        this(factory, false);
+    }
+
+    /**
+     * @param requestTestClasses whether the worker should request a new test class from the build process each time it has processed one.
+     */
+    public TestWorker(WorkerTestClassProcessorFactory factory, boolean requestTestClasses) {
+        this(factory, requestTestClasses, false);
+    }
+
+    /**
+     * @param factory the factory for the test class processor of the single run of a worker that is not reusable.
+     * @param reusable whether the worker should keep running after a test run has been stopped, waiting for the next one.
+     */
+    public TestWorker(@Nullable WorkerTestClassProcessorFactory factory, boolean requestTestClasses, boolean reusable) {
         this.factory = factory;
+        this.requestTestClasses = requestTestClasses;
+        this.reusable = reusable;
     }
 
     @Override
     public void execute(final WorkerProcessContext workerProcessContext) {
         LOGGER.info("{} started executing tests.", workerProcessContext.getDisplayName());
 
-        SecurityManager securityManager = System.getSecurityManager();
+        this.workerProcessContext = workerProcessContext;
+        securityManager = System.getSecurityManager();
         completed = new CountDownLatch(1);
 
         System.setProperty(WORKER_ID_SYS_PROPERTY, workerProcessContext.getWorkerId().toString());
+        if (reusable) {
+            systemProperties = copyOf(System.getProperties());
+        }
 
         DefaultServiceRegistry testServices = new TestFrameworkServiceRegistry(workerProcessContext);
+        this.testServices = testServices;
         startReceivingTests(workerProcessContext, testServices);
 
         try {
@@ -76,33 +117,98 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
         } finally {
             LOGGER.info("{} finished executing tests.", workerProcessContext.getDisplayName());
 
-            if (System.getSecurityManager() != securityManager) {
-                try {
-                    // Reset security manager the tests seem to have installed
-                    System.setSecurityManager(securityManager);
-                } catch (SecurityException e) {
-                    LOGGER.warn("Unable to reset SecurityManager. Continuing anyway...", e);
-                }
-            }
+            resetSecurityManager();
             testServices.close();
         }
     }
 
+    private void resetSecurityManager() {
+        if (System.getSecurityManager() != securityManager) {
+            try {
+                // Reset security manager the tests seem to have installed
+                System.setSecurityManager(securityManager);
+            } catch (SecurityException e) {
+                LOGGER.warn("Unable to reset SecurityManager. Continuing anyway...", e);
+            }
+        }
+    }
+
+    private static Properties copyOf(Properties properties) {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
     private void startReceivingTests(WorkerProcessContext workerProcessContext, ServiceRegistry testServices) {
+        if (!reusable) {
+            createProcessor(factory, workerProcessContext.getApplicationClassLoader());
+        }
+
+        ObjectConnection serverConnection = workerProcessContext.getServerConnection();
+        serverConnection.useParameterSerializers(TestEventSerializer.create());
+        this.resultProcessor = serverConnection.addOutgoing(TestResultProcessor.class);
+        if (requestTestClasses) {
+            this.testClassSource = serverConnection.addOutgoing(RemoteTestClassSource.class);
+        }
+        if (reusable) {
+            serverConnection.addIncoming(ReusableRemoteTestClassProcessor.class, this);
+        } else {
+            serverConnection.addIncoming(RemoteTestClassProcessor.class, this);
+        }
+        serverConnection.connect();
+    }
+
+    private void createProcessor(WorkerTestClassProcessorFactory factory, ClassLoader applicationClassLoader) {
         TestClassProcessor targetProcessor = factory.create(testServices);
         IdGenerator<Object> idGenerator = testServices.get(IdGenerator.class);
 
         targetProcessor = new WorkerTestClassProcessor(targetProcessor, idGenerator.generateId(),
                 workerProcessContext.getDisplayName(), testServices.get(Clock.class));
         ContextClassLoaderProxy<TestClassProcessor> proxy = new ContextClassLoaderProxy<TestClassProcessor>(
-                TestClassProcessor.class, targetProcessor, workerProcessContext.getApplicationClassLoader());
+                TestClassProcessor.class, targetProcessor, applicationClassLoader);
         processor = proxy.getSource();
+    }
 
-        ObjectConnection serverConnection = workerProcessContext.getServerConnection();
-        serverConnection.useParameterSerializers(TestEventSerializer.create());
-        this.resultProcessor = serverConnection.addOutgoing(TestResultProcessor.class);
-        serverConnection.addIncoming(RemoteTestClassProcessor.class, this);
-        serverConnection.connect();
+    @Override
+    public void startRun(TestWorkerRunSpec run) {
+        Thread.currentThread().setName("Test worker");
+        try {
+            createRunClassLoaders(run);
+            createProcessor(run.createProcessorFactory(runTestFrameworkClassLoader), runApplicationClassLoader);
+        } catch (RuntimeException e) {
+            completed.countDown();
+            throw e;
+        }
+        processor.startProcessing(resultProcessor);
+    }
+
+    /**
+     * Creates the class loaders of a run. The test framework implementation classes are loaded separately for each run,
+     * so that they see the test framework classes of the run's application classpath through the shared packages.
+     */
+    private void createRunClassLoaders(TestWorkerRunSpec run) {
+        List<File> applicationClasspath = run.getApplicationClasspath();
+        runApplicationClassLoader = new URLClassLoader(DefaultClassPath.of(applicationClasspath).getAsURLArray(), ClassLoader.getSystemClassLoader());
+        System.setProperty("java.class.path", joinPaths(applicationClasspath));
+
+        FilteringClassLoader.Spec sharedPackagesSpec = new FilteringClassLoader.Spec();
+        for (String sharedPackage : run.getSharedPackages()) {
+            sharedPackagesSpec.allowPackage(sharedPackage);
+        }
+        ClassLoader parent = new MultiParentClassLoader(new FilteringClassLoader(runApplicationClassLoader, sharedPackagesSpec), getClass().getClassLoader());
+        List<URL> testFrameworkImplementationClasspath = run.getTestFrameworkImplementationClasspath();
+        runTestFrameworkClassLoader = new URLClassLoader(testFrameworkImplementationClasspath.toArray(new URL[0]), parent);
+    }
+
+    private static String joinPaths(List<File> files) {
+        StringBuilder builder = new StringBuilder();
+        for (File file : files) {
+            if (builder.length() > 0) {
+                builder.append(File.pathSeparatorChar);
+            }
+            builder.append(file.getAbsolutePath());
+        }
+        return builder.toString();
     }
 
     @Override
@@ -122,6 +228,9 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
         } finally {
             // Clean the interrupted status
             Thread.interrupted();
+            if (testClassSource != null) {
+                testClassSource.requestTestClass();
+            }
         }
     }
 
@@ -131,13 +240,36 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
         try {
             processor.stop();
         } finally {
-            completed.countDown();
+            if (reusable) {
+                resetAfterRun();
+            } else {
+                completed.countDown();
+            }
             // Clean the interrupted status
             // because some test class processors do work here, e.g. JUnitPlatform
             Thread.interrupted();
         }
     }
 
+    /**
+     * Discards the class loaders of the run, along with any static state of the classes they loaded, and restores the JVM wide
+     * state that tests commonly change, so that none of it leaks into the next run.
+     */
+    private void resetAfterRun() {
+        processor = null;
+        ClassLoaderUtils.tryClose(runTestFrameworkClassLoader);
+        ClassLoaderUtils.tryClose(runApplicationClassLoader);
+        runTestFrameworkClassLoader = null;
+        runApplicationClassLoader = null;
+        resetSecurityManager();
+        System.setProperties(copyOf(systemProperties));
+    }
+
+    @Override
+    public void shutdown() {
+        completed.countDown();
+    }
+
     private static class TestFrameworkServiceRegistry extends DefaultServiceRegistry {
         private final WorkerProcessContext workerProcessContext;
 
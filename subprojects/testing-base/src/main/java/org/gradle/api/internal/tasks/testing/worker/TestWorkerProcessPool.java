@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedScheduledExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.time.Clock;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps idle test worker processes alive, so that they can be reused by later test runs that use the same worker configuration.
+ *
+ * <p>This is opt-in, by setting the {@value #REUSE_WORKER_PROCESSES_PROPERTY} system property to {@code true}. Each run loads its classes
+ * into its own class loaders, but state that tests leave behind outside of those, such as running threads, is still visible to the test
+ * runs that reuse the worker process.</p>
+ *
+ * <p>Worker processes that have been idle for longer than the maximum idle time are stopped.</p>
+ */
+public class TestWorkerProcessPool implements Stoppable {
+    public static final String REUSE_WORKER_PROCESSES_PROPERTY = "org.gradle.internal.testing.workers.reuse";
+    static final long DEFAULT_MAX_IDLE_TIME_MILLIS = TimeUnit.MINUTES.toMillis(3);
+
+    private static final Logger LOGGER = Logging.getLogger(TestWorkerProcessPool.class);
+
+    private final Object lock = new Object();
+    private final List<IdleWorkerProcess> idleWorkerProcesses = new ArrayList<IdleWorkerProcess>();
+    private final ExecutorFactory executorFactory;
+    private final Clock clock;
+    private final int maxIdleWorkerProcesses;
+    private final long maxIdleTimeMillis;
+    private ManagedScheduledExecutor expiryExecutor;
+    private boolean stopped;
+
+    TestWorkerProcessPool(ExecutorFactory executorFactory, Clock clock, int maxIdleWorkerProcesses, long maxIdleTimeMillis) {
+        this.executorFactory = executorFactory;
+        this.clock = clock;
+        this.maxIdleWorkerProcesses = maxIdleWorkerProcesses;
+        this.maxIdleTimeMillis = maxIdleTimeMillis;
+    }
+
+    public boolean isEnabled() {
+        return Boolean.getBoolean(REUSE_WORKER_PROCESSES_PROPERTY);
+    }
+
+    @Nullable
+    ReusableTestWorkerProcess reserveIdleWorkerProcess(HashCode key) {
+        synchronized (lock) {
+            Iterator<IdleWorkerProcess> iterator = idleWorkerProcesses.iterator();
+            while (iterator.hasNext()) {
+                ReusableTestWorkerProcess candidate = iterator.next().workerProcess;
+                if (candidate.getKey().equals(key) && candidate.isConnected()) {
+                    iterator.remove();
+                    LOGGER.debug("Reusing idle test worker process.");
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
+    void release(ReusableTestWorkerProcess workerProcess) {
+        List<ReusableTestWorkerProcess> toStop = new ArrayList<ReusableTestWorkerProcess>();
+        synchronized (lock) {
+            if (stopped || !workerProcess.isConnected()) {
+                toStop.add(workerProcess);
+            } else {
+                idleWorkerProcesses.add(new IdleWorkerProcess(workerProcess, clock.getCurrentTime()));
+                // Stop the least recently used worker processes
+                while (idleWorkerProcesses.size() > maxIdleWorkerProcesses) {
+                    toStop.add(idleWorkerProcesses.remove(0).workerProcess);
+                }
+                scheduleExpiry();
+            }
+        }
+        stopWorkerProcesses(toStop);
+    }
+
+    private void scheduleExpiry() {
+        if (expiryExecutor == null) {
+            expiryExecutor = executorFactory.createScheduled("Test worker process expiry", 1);
+            long checkIntervalMillis = Math.max(1, maxIdleTimeMillis / 2);
+            expiryExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    expireIdleWorkerProcesses();
+                }
+            }, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the worker processes that have been idle for longer than the maximum idle time.
+     */
+    void expireIdleWorkerProcesses() {
+        List<ReusableTestWorkerProcess> toStop = new ArrayList<ReusableTestWorkerProcess>();
+        synchronized (lock) {
+            long now = clock.getCurrentTime();
+            Iterator<IdleWorkerProcess> iterator = idleWorkerProcesses.iterator();
+            while (iterator.hasNext()) {
+                IdleWorkerProcess idleWorkerProcess = iterator.next();
+                if (now - idleWorkerProcess.idleSince >= maxIdleTimeMillis) {
+                    iterator.remove();
+                    toStop.add(idleWorkerProcess.workerProcess);
+                }
+            }
+        }
+        stopWorkerProcesses(toStop);
+    }
+
+    @Override
+    public void stop() {
+        List<ReusableTestWorkerProcess> toStop = new ArrayList<ReusableTestWorkerProcess>();
+        ManagedScheduledExecutor expiryExecutor;
+        synchronized (lock) {
+            stopped = true;
+            for (IdleWorkerProcess idleWorkerProcess : idleWorkerProcesses) {
+                toStop.add(idleWorkerProcess.workerProcess);
+            }
+            idleWorkerProcesses.clear();
+            expiryExecutor = this.expiryExecutor;
+            this.expiryExecutor = null;
+        }
+        CompositeStoppable.stoppable(expiryExecutor).stop();
+        stopWorkerProcesses(toStop);
+    }
+
+    private static void stopWorkerProcesses(List<ReusableTestWorkerProcess> workerProcesses) {
+        if (workerProcesses.isEmpty()) {
+            return;
+        }
+        LOGGER.debug("Stopping {} idle test worker process(es).", workerProcesses.size());
+        CompositeStoppable.stoppable(workerProcesses).stop();
+    }
+
+    private static class IdleWorkerProcess {
+        private final ReusableTestWorkerProcess workerProcess;
+        private final long idleSince;
+
+        IdleWorkerProcess(ReusableTestWorkerProcess workerProcess, long idleSince) {
+            this.workerProcess = workerProcess;
+            this.idleSince = idleSince;
+        }
+    }
+}
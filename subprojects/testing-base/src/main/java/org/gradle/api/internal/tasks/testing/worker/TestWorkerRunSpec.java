@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.io.ClassLoaderObjectInputStream;
+import org.gradle.util.GUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes a single test run of a reusable test worker process.
+ *
+ * <p>The worker loads the test runtime classpath and the test framework implementation classes of each run into class loaders that
+ * are discarded at the end of the run. The processor factory is sent in serialized form, as its class is only visible from the
+ * test framework class loader of the run.</p>
+ */
+public class TestWorkerRunSpec implements Serializable {
+    private final List<File> applicationClasspath;
+    private final List<URL> testFrameworkImplementationClasspath;
+    private final Set<String> sharedPackages;
+    private final byte[] serializedProcessorFactory;
+
+    public TestWorkerRunSpec(Iterable<File> applicationClasspath, Iterable<URL> testFrameworkImplementationClasspath, Iterable<String> sharedPackages, WorkerTestClassProcessorFactory processorFactory) {
+        this.applicationClasspath = new ArrayList<File>();
+        for (File file : applicationClasspath) {
+            this.applicationClasspath.add(file);
+        }
+        this.testFrameworkImplementationClasspath = new ArrayList<URL>();
+        for (URL url : testFrameworkImplementationClasspath) {
+            this.testFrameworkImplementationClasspath.add(url);
+        }
+        this.sharedPackages = new LinkedHashSet<String>();
+        for (String sharedPackage : sharedPackages) {
+            this.sharedPackages.add(sharedPackage);
+        }
+        this.serializedProcessorFactory = GUtil.serialize(processorFactory);
+    }
+
+    public List<File> getApplicationClasspath() {
+        return applicationClasspath;
+    }
+
+    public List<URL> getTestFrameworkImplementationClasspath() {
+        return testFrameworkImplementationClasspath;
+    }
+
+    public Set<String> getSharedPackages() {
+        return sharedPackages;
+    }
+
+    /**
+     * Deserializes the processor factory of this run, loading its classes from the given class loader.
+     */
+    public WorkerTestClassProcessorFactory createProcessorFactory(ClassLoader classLoader) {
+        try {
+            ObjectInputStream inputStream = new ClassLoaderObjectInputStream(new ByteArrayInputStream(serializedProcessorFactory), classLoader);
+            return (WorkerTestClassProcessorFactory) inputStream.readObject();
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
@@ -41,7 +41,7 @@ import org.gradle.api.internal.tasks.testing.TestExecutionSpec;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
 import org.gradle.api.internal.tasks.testing.filter.DefaultTestFilter;
 import org.gradle.api.internal.tasks.testing.junit.result.Binary2JUnitXmlReportGenerator;
-import org.gradle.api.internal.tasks.testing.junit.result.InMemoryTestResultsProvider;
+import org.gradle.api.internal.tasks.testing.junit.result.BinaryResultBackedTestResultsProvider;
 import org.gradle.api.internal.tasks.testing.junit.result.TestClassResult;
 import org.gradle.api.internal.tasks.testing.junit.result.TestOutputAssociation;
 import org.gradle.api.internal.tasks.testing.junit.result.TestOutputStore;
@@ -455,7 +455,8 @@ public abstract class AbstractTestTask extends ConventionTask implements Verific
         TestOutputStore testOutputStore = new TestOutputStore(binaryResultsDir);
 
         TestOutputStore.Writer outputWriter = testOutputStore.writer();
-        TestReportDataCollector testReportDataCollector = new TestReportDataCollector(results, outputWriter);
+        TestResultSerializer.Writer resultsWriter = new TestResultSerializer(binaryResultsDir).writer();
+        TestReportDataCollector testReportDataCollector = new TestReportDataCollector(results, outputWriter, resultsWriter);
 
         addTestListener(testReportDataCollector);
         addTestOutputListener(testReportDataCollector);
@@ -488,11 +489,17 @@ public abstract class AbstractTestTask extends ConventionTask implements Verific
             getTestOutputListenerBroadcaster().removeAll();
             getTestListenerInternalBroadcaster().removeAll();
             outputWriter.close();
+            // Write the results of test classes that have not completed
+            try {
+                for (TestClassResult result : results.values()) {
+                    resultsWriter.write(result);
+                }
+            } finally {
+                resultsWriter.close();
+            }
         }
 
-        new TestResultSerializer(binaryResultsDir).write(results.values());
-
-        createReporting(results, testOutputStore);
+        createReporting(binaryResultsDir);
 
         if (testCountLogger.hadFailures()) {
             handleTestFailures();
@@ -522,8 +529,8 @@ public abstract class AbstractTestTask extends ConventionTask implements Verific
         return reasons;
     }
 
-    private void createReporting(Map<String, TestClassResult> results, TestOutputStore testOutputStore) {
-        TestResultsProvider testResultsProvider = new InMemoryTestResultsProvider(results.values(), testOutputStore);
+    private void createReporting(File binaryResultsDir) {
+        TestResultsProvider testResultsProvider = new BinaryResultBackedTestResultsProvider(binaryResultsDir);
 
         try {
             if (testReporter == null) {
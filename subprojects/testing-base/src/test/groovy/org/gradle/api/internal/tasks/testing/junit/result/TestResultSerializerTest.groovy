@@ -67,6 +67,53 @@ class TestResultSerializerTest extends Specification {
         readClass2.results.empty
     }
 
+    def "merges results of a class that are written more than once"() {
+        def serializer = new TestResultSerializer(tmp.createDir("results"))
+        def class1 = new TestClassResult(1, 'Class1', 1234).add(new TestMethodResult(2, "method1", TestResult.ResultType.SUCCESS, 100, 2300))
+        def class2 = new TestClassResult(3, 'Class2', 5678)
+        def laterClass1 = new TestClassResult(1, 'Class1', 0).add(new TestMethodResult(4, "method2", TestResult.ResultType.FAILURE, 200, 2700))
+
+        when:
+        def writer = serializer.writer()
+        writer.write(class1)
+        writer.write(class2)
+        writer.write(laterClass1)
+        writer.close()
+        def read = []
+        serializer.read({ read << it } as Action)
+
+        then:
+        read*.className == ['Class1', 'Class2']
+        read[0].startTime == 1234
+        read[0].results*.name == ['method1', 'method2']
+        read[0].failuresCount == 1
+    }
+
+    def "reads results of classes whose records are larger than the read buffer"() {
+        def class1 = new TestClassResult(1, 'Class1', 1234)
+        (1..200).each { class1.add(new TestMethodResult(it, "method$it", TestResult.ResultType.FAILURE, it, 2300).addFailure("message $it", "stack-trace " * 20, "ExceptionType")) }
+        def class2 = new TestClassResult(201, 'Class2', 5678).add(new TestMethodResult(202, "other", TestResult.ResultType.SUCCESS, 100, 2300))
+
+        when:
+        def read = serialize([class1, class2])
+
+        then:
+        read*.className == ['Class1', 'Class2']
+        read[0].results.size() == 200
+        read[0].results[199].failures[0].message == "message 200"
+        read[1].results*.name == ['other']
+    }
+
+    def "writes empty file when there are no results"() {
+        def serializer = new TestResultSerializer(tmp.createDir("results"))
+
+        when:
+        serializer.writer().close()
+
+        then:
+        !serializer.hasResults
+    }
+
     List<TestClassResult> serialize(Collection<TestClassResult> results) {
         def serializer = new TestResultSerializer(tmp.createDir("results"))
         serializer.write(results)
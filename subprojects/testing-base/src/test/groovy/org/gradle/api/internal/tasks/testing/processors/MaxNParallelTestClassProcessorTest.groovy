@@ -202,4 +202,47 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         1 * processor1.stopNow()
         1 * processor2.stopNow()
     }
+
+    def "idle processors take the next test class when work stealing"() {
+        def workStealingProcessor = new MaxNParallelTestClassProcessor(2, factory, actorFactory, true)
+        TestClassRunInfo test1 = Mock()
+        TestClassRunInfo test2 = Mock()
+        TestClassRunInfo test3 = Mock()
+        TestClassProcessor processor1 = Mock()
+        TestClassProcessor processor2 = Mock()
+        Actor pullerActor = Stub()
+        List<Runnable> pullers = []
+
+        1 * actorFactory.createActor(resultProcessor) >> resultProcessorActor
+        1 * resultProcessorActor.getProxy(TestResultProcessor) >> asyncResultProcessor
+        workStealingProcessor.startProcessing(resultProcessor)
+
+        when:
+        workStealingProcessor.processTestClass(test1)
+        workStealingProcessor.processTestClass(test2)
+        workStealingProcessor.processTestClass(test3)
+        workStealingProcessor.stop()
+
+        then:
+        2 * factory.create() >>> [processor1, processor2]
+        1 * processor1.startProcessing(asyncResultProcessor)
+        1 * processor2.startProcessing(asyncResultProcessor)
+        2 * actorFactory.createActor(_) >> { Runnable puller ->
+            pullers << puller
+            pullerActor
+        }
+        0 * processor1.processTestClass(_)
+        0 * processor2.processTestClass(_)
+
+        when:
+        pullers[0].run()
+
+        then:
+        1 * processor1.processTestClass(test1) >> { pullers[1].run() }
+        1 * processor2.processTestClass(test2)
+        1 * processor2.processTestClass(test3)
+        1 * processor2.stop()
+        1 * processor1.stop()
+        0 * processor1.processTestClass(_)
+    }
 }
@@ -20,10 +20,19 @@ import org.gradle.api.Action
 import org.gradle.api.internal.DocumentationRegistry
 import org.gradle.api.internal.classpath.Module
 import org.gradle.api.internal.classpath.ModuleRegistry
+import org.gradle.api.internal.tasks.testing.TestClassProcessor
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal
+import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.api.internal.tasks.testing.TestStartEvent
 import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory
 import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.dispatch.StreamCompletion
 import org.gradle.internal.remote.ObjectConnection
+import org.gradle.internal.service.ServiceRegistry
+import org.gradle.internal.time.Clock
 import org.gradle.internal.work.WorkerLeaseRegistry
 import org.gradle.process.JavaForkOptions
 import org.gradle.process.internal.ExecException
@@ -123,6 +132,158 @@ class ForkingTestClassProcessorTest extends Specification {
         notThrown(ExecException)
     }
 
+    def "waits for the worker to request the next test class"() {
+        def test = Mock(TestClassRunInfo)
+        def remoteProcessor = Mock(RemoteTestClassProcessor)
+        RemoteTestClassSource testClassSource = null
+        ForkingTestClassProcessor processor = new ForkingTestClassProcessor(Stub(WorkerLeaseRegistry.WorkerLease), workerProcessFactory, Mock(WorkerTestClassProcessorFactory), options, [new File("classpath.jar")], Mock(Action), Stub(ModuleRegistry), documentationRegistry, true)
+
+        setup:
+        1 * workerProcess.getConnection() >> Stub(ObjectConnection) {
+            addOutgoing(RemoteTestClassProcessor) >> remoteProcessor
+            addIncoming(RemoteTestClassSource, _) >> { Class type, RemoteTestClassSource source -> testClassSource = source }
+        }
+
+        when:
+        processor.processTestClass(test)
+
+        then:
+        1 * remoteProcessor.processTestClass(test) >> { testClassSource.requestTestClass() }
+    }
+
+    def "stops waiting for test class requests when the worker disconnects"() {
+        def test = Mock(TestClassRunInfo)
+        def remoteProcessor = Mock(RemoteTestClassProcessor)
+        RemoteTestClassSource testClassSource = null
+        ForkingTestClassProcessor processor = new ForkingTestClassProcessor(Stub(WorkerLeaseRegistry.WorkerLease), workerProcessFactory, Mock(WorkerTestClassProcessorFactory), options, [new File("classpath.jar")], Mock(Action), Stub(ModuleRegistry), documentationRegistry, true)
+
+        setup:
+        1 * workerProcess.getConnection() >> Stub(ObjectConnection) {
+            addOutgoing(RemoteTestClassProcessor) >> remoteProcessor
+            addIncoming(RemoteTestClassSource, _) >> { Class type, RemoteTestClassSource source -> testClassSource = source }
+        }
+
+        when:
+        processor.processTestClass(test)
+        processor.processTestClass(test)
+
+        then:
+        2 * remoteProcessor.processTestClass(test) >> { (testClassSource as StreamCompletion).endStream() }
+    }
+
+    def "starts reusable worker process without application classpath and passes the classpath to the run"() {
+        def test = Mock(TestClassRunInfo)
+        def remoteProcessor = Mock(ReusableRemoteTestClassProcessor)
+        def pool = new TestWorkerProcessPool(Stub(ExecutorFactory), Stub(Clock), 1, 1000)
+        def processor = reusingProcessor(pool)
+
+        setup:
+        workerProcessBuilder.getSharedPackages() >> (["org.junit"] as Set)
+        1 * workerProcess.getConnection() >> Stub(ObjectConnection) {
+            addOutgoing(ReusableRemoteTestClassProcessor) >> remoteProcessor
+        }
+
+        when:
+        processor.startProcessing(Mock(TestResultProcessor))
+        processor.processTestClass(test)
+
+        then:
+        1 * workerProcessBuilder.applicationClasspath([])
+        1 * workerProcess.start()
+        1 * remoteProcessor.startRun({ TestWorkerRunSpec run ->
+            run.applicationClasspath == [new File("classpath.jar")] && run.sharedPackages == ["org.junit"] as Set
+        })
+
+        then:
+        1 * remoteProcessor.processTestClass(test)
+    }
+
+    def "returns reusable worker process to the pool at the end of the run and reuses it for the next run"() {
+        def test = Mock(TestClassRunInfo)
+        def remoteProcessor = Mock(ReusableRemoteTestClassProcessor)
+        def pool = new TestWorkerProcessPool(Stub(ExecutorFactory), Stub(Clock), 1, 1000)
+        TestResultProcessor runResults = null
+        def workerSuite = Stub(TestDescriptorInternal) {
+            getId() >> "worker suite"
+        }
+
+        setup:
+        workerProcessBuilder.getSharedPackages() >> ([] as Set)
+        1 * workerProcess.getConnection() >> Stub(ObjectConnection) {
+            addOutgoing(ReusableRemoteTestClassProcessor) >> remoteProcessor
+            addIncoming(TestResultProcessor, _) >> { Class type, TestResultProcessor results -> runResults = results }
+        }
+        remoteProcessor.stop() >> {
+            runResults.started(workerSuite, new TestStartEvent(0))
+            runResults.completed("worker suite", new TestCompleteEvent(0))
+        }
+
+        when:
+        def firstRun = reusingProcessor(pool)
+        firstRun.startProcessing(Mock(TestResultProcessor))
+        firstRun.processTestClass(test)
+        firstRun.stop()
+
+        def secondRun = reusingProcessor(pool)
+        secondRun.startProcessing(Mock(TestResultProcessor))
+        secondRun.processTestClass(test)
+
+        then:
+        1 * workerProcess.start()
+        0 * workerProcess.waitForStop()
+        2 * remoteProcessor.startRun(_)
+        2 * remoteProcessor.processTestClass(test)
+    }
+
+    def "stops reusable worker process instead of returning it to the pool when it disconnects during the run"() {
+        def test = Mock(TestClassRunInfo)
+        def remoteProcessor = Mock(ReusableRemoteTestClassProcessor)
+        def pool = new TestWorkerProcessPool(Stub(ExecutorFactory), Stub(Clock), 1, 1000)
+        TestResultProcessor runResults = null
+
+        setup:
+        workerProcessBuilder.getSharedPackages() >> ([] as Set)
+        2 * workerProcess.getConnection() >> Stub(ObjectConnection) {
+            addOutgoing(ReusableRemoteTestClassProcessor) >> remoteProcessor
+            addIncoming(TestResultProcessor, _) >> { Class type, TestResultProcessor results -> runResults = results }
+        }
+        remoteProcessor.stop() >> {
+            (runResults as StreamCompletion).endStream()
+        }
+
+        when:
+        def firstRun = reusingProcessor(pool)
+        firstRun.startProcessing(Mock(TestResultProcessor))
+        firstRun.processTestClass(test)
+        firstRun.stop()
+
+        then:
+        1 * workerProcess.waitForStop()
+
+        when:
+        def secondRun = reusingProcessor(pool)
+        secondRun.startProcessing(Mock(TestResultProcessor))
+        secondRun.processTestClass(test)
+
+        then:
+        1 * workerProcess.start()
+    }
+
+    ForkingTestClassProcessor reusingProcessor(TestWorkerProcessPool pool) {
+        def forkOptions = Stub(JavaForkOptions) {
+            getExecutable() >> "java"
+            getWorkingDir() >> new File("work")
+        }
+        return new ForkingTestClassProcessor(Stub(WorkerLeaseRegistry.WorkerLease), workerProcessFactory, new SerializableProcessorFactory(), forkOptions, [new File("classpath.jar")], Mock(Action), Stub(ModuleRegistry), documentationRegistry, false, pool)
+    }
+
+    static class SerializableProcessorFactory implements WorkerTestClassProcessorFactory, Serializable {
+        @Override
+        TestClassProcessor create(ServiceRegistry serviceRegistry) {
+            throw new UnsupportedOperationException()
+        }
+    }
+
     def module(String module) {
         return Stub(Module) {
             _ * getImplementationClasspath() >> {
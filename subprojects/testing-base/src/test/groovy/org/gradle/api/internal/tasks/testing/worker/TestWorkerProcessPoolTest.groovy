@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.concurrent.ManagedScheduledExecutor
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.remote.ObjectConnection
+import org.gradle.internal.time.Clock
+import org.gradle.process.internal.worker.WorkerProcess
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class TestWorkerProcessPoolTest extends Specification {
+    def key1 = HashCode.fromInt(1)
+    def key2 = HashCode.fromInt(2)
+    def expiryExecutor = Mock(ManagedScheduledExecutor)
+    def executorFactory = Mock(ExecutorFactory)
+    def clock = Mock(Clock)
+    def pool = new TestWorkerProcessPool(executorFactory, clock, 2, 1000)
+
+    def setup() {
+        _ * executorFactory.createScheduled(_, _) >> expiryExecutor
+    }
+
+    def "reuses released worker process with the same key"() {
+        def workerProcess = workerProcess(key1)
+
+        when:
+        pool.release(workerProcess)
+
+        then:
+        pool.reserveIdleWorkerProcess(key2) == null
+        pool.reserveIdleWorkerProcess(key1) == workerProcess
+        pool.reserveIdleWorkerProcess(key1) == null
+    }
+
+    def "stops least recently used worker process when too many are idle"() {
+        def workerProcess1 = workerProcess(key1)
+        def workerProcess2 = workerProcess(key1)
+        def workerProcess3 = workerProcess(key2)
+
+        when:
+        pool.release(workerProcess1)
+        pool.release(workerProcess2)
+        pool.release(workerProcess3)
+
+        then:
+        1 * workerProcess1.workerProcess.waitForStop()
+        0 * workerProcess2.workerProcess.waitForStop()
+        0 * workerProcess3.workerProcess.waitForStop()
+
+        and:
+        pool.reserveIdleWorkerProcess(key1) == workerProcess2
+        pool.reserveIdleWorkerProcess(key2) == workerProcess3
+    }
+
+    def "stops worker processes that have been idle for longer than the maximum idle time"() {
+        def workerProcess1 = workerProcess(key1)
+        def workerProcess2 = workerProcess(key2)
+        Runnable expiry = null
+
+        when:
+        pool.release(workerProcess1)
+
+        then:
+        1 * clock.currentTime >> 0
+        1 * executorFactory.createScheduled(_, 1) >> expiryExecutor
+        1 * expiryExecutor.scheduleWithFixedDelay(_, 500, 500, TimeUnit.MILLISECONDS) >> { args -> expiry = args[0]; null }
+
+        when:
+        pool.release(workerProcess2)
+
+        then:
+        1 * clock.currentTime >> 600
+        0 * executorFactory._
+
+        when:
+        expiry.run()
+
+        then:
+        1 * clock.currentTime >> 1000
+        1 * workerProcess1.workerProcess.waitForStop()
+        0 * workerProcess2.workerProcess.waitForStop()
+
+        and:
+        pool.reserveIdleWorkerProcess(key1) == null
+        pool.reserveIdleWorkerProcess(key2) == workerProcess2
+    }
+
+    def "does not schedule expiry until a worker process is idle"() {
+        when:
+        pool.reserveIdleWorkerProcess(key1)
+        pool.stop()
+
+        then:
+        0 * executorFactory._
+    }
+
+    def "stops idle worker processes when stopped"() {
+        def workerProcess1 = workerProcess(key1)
+        def workerProcess2 = workerProcess(key2)
+        pool.release(workerProcess1)
+
+        when:
+        pool.stop()
+
+        then:
+        1 * expiryExecutor.stop()
+        1 * workerProcess1.workerProcess.waitForStop()
+
+        when:
+        pool.release(workerProcess2)
+
+        then:
+        1 * workerProcess2.workerProcess.waitForStop()
+        pool.reserveIdleWorkerProcess(key2) == null
+    }
+
+    def workerProcess(HashCode key) {
+        def connection = Stub(ObjectConnection) {
+            addOutgoing(ReusableRemoteTestClassProcessor) >> Stub(ReusableRemoteTestClassProcessor)
+        }
+        def process = Mock(WorkerProcess) {
+            getConnection() >> connection
+        }
+        return new ReusableTestWorkerProcess(key, process, false)
+    }
+}
@@ -25,13 +25,16 @@ import org.gradle.internal.remote.ObjectConnection
 import org.gradle.internal.service.DefaultServiceRegistry
 import org.gradle.internal.time.Clock
 import org.gradle.internal.time.Time
+import org.gradle.internal.service.ServiceRegistry
 import org.gradle.process.internal.worker.WorkerProcessContext
 import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.util.SetSystemProperties
 import org.junit.Rule
 
 public class TestWorkerTest extends ConcurrentSpec {
     @Rule SetSystemProperties properties = new SetSystemProperties()
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
     def workerContext = Mock(WorkerProcessContext)
     def connection = Mock(ObjectConnection)
     def factory = Mock(WorkerTestClassProcessorFactory)
@@ -45,6 +48,7 @@ public class TestWorkerTest extends ConcurrentSpec {
         workerContext.workerId >> "<worker-id>"
         workerContext.serverConnection >> connection
         workerContext.serviceRegistry >> serviceRegistry
+        RecordingProcessor.runs.clear()
     }
 
     def createsTestProcessorAndBlocksUntilEndOfProcessingReceived() {
@@ -76,4 +80,142 @@ public class TestWorkerTest extends ConcurrentSpec {
         1 * processor.processTestClass(test)
         1 * processor.stop()
     }
+
+    def requestsNextTestClassAfterProcessingEachTestClass() {
+        def requestingWorker = new TestWorker(factory, true)
+        def testClassSource = Mock(RemoteTestClassSource)
+
+        when:
+        async {
+            requestingWorker.execute(workerContext)
+        }
+
+        then:
+        1 * factory.create(_) >> processor
+        1 * connection.addOutgoing(TestResultProcessor) >> resultProcessor
+        1 * connection.addOutgoing(RemoteTestClassSource) >> testClassSource
+        1 * connection.addIncoming(RemoteTestClassProcessor, requestingWorker)
+        1 * connection.connect() >> {
+            start {
+                requestingWorker.startProcessing()
+                requestingWorker.processTestClass(test)
+                requestingWorker.stop()
+            }
+        }
+        1 * processor.processTestClass(test)
+
+        then:
+        1 * testClassSource.requestTestClass()
+    }
+
+    def reusableWorkerLoadsClassesOfEachRunInClassLoaderThatIsDiscardedWhenRunStops() {
+        def reusableWorker = new TestWorker(null, false, true)
+        def classpath1 = tmpDir.createDir("run1")
+        classpath1.file("marker.txt").text = "run1"
+        def classpath2 = tmpDir.createDir("run2")
+        classpath2.file("marker.txt").text = "run2"
+        System.setProperty("test.property", "original")
+
+        when:
+        async {
+            reusableWorker.execute(workerContext)
+        }
+
+        then:
+        1 * connection.addOutgoing(TestResultProcessor) >> resultProcessor
+        1 * connection.addIncoming(ReusableRemoteTestClassProcessor, reusableWorker)
+        1 * connection.connect() >> {
+            start {
+                reusableWorker.startRun(runSpec(classpath1))
+                reusableWorker.processTestClass(test)
+                reusableWorker.stop()
+                reusableWorker.startRun(runSpec(classpath2))
+                reusableWorker.processTestClass(test)
+                reusableWorker.stop()
+                reusableWorker.shutdown()
+            }
+        }
+
+        and:
+        def runs = RecordingProcessor.runs
+        runs.size() == 2
+        runs[0].marker == "run1"
+        runs[0].classPath == classpath1.absolutePath
+        runs[1].marker == "run2"
+        runs[1].classPath == classpath2.absolutePath
+        !runs[0].classLoader.is(runs[1].classLoader)
+
+        and:
+        runs[0].classLoader.getResource("marker.txt") == null
+        runs[1].classLoader.getResource("marker.txt") == null
+        System.getProperty("test.property") == "original"
+    }
+
+    def reusableWorkerStopsWhenRunCannotBeStarted() {
+        def reusableWorker = new TestWorker(null, false, true)
+
+        when:
+        async {
+            reusableWorker.execute(workerContext)
+        }
+
+        then:
+        1 * connection.addOutgoing(TestResultProcessor) >> resultProcessor
+        1 * connection.addIncoming(ReusableRemoteTestClassProcessor, reusableWorker)
+        1 * connection.connect() >> {
+            start {
+                try {
+                    reusableWorker.startRun(new TestWorkerRunSpec([], [], [], new BrokenProcessorFactory()))
+                } catch (IllegalStateException ignored) {
+                    // Expected
+                }
+            }
+        }
+        RecordingProcessor.runs.empty
+    }
+
+    TestWorkerRunSpec runSpec(File classpath) {
+        return new TestWorkerRunSpec([classpath], [], [], new RecordingProcessorFactory())
+    }
+
+    static class RecordingProcessorFactory implements WorkerTestClassProcessorFactory, Serializable {
+        @Override
+        TestClassProcessor create(ServiceRegistry serviceRegistry) {
+            return new RecordingProcessor()
+        }
+    }
+
+    static class BrokenProcessorFactory implements WorkerTestClassProcessorFactory, Serializable {
+        @Override
+        TestClassProcessor create(ServiceRegistry serviceRegistry) {
+            throw new IllegalStateException("broken")
+        }
+    }
+
+    static class RecordingProcessor implements TestClassProcessor {
+        static final List<Map<String, Object>> runs = []
+
+        @Override
+        void startProcessing(TestResultProcessor resultProcessor) {
+        }
+
+        @Override
+        void processTestClass(TestClassRunInfo testClass) {
+            def classLoader = Thread.currentThread().contextClassLoader
+            runs << [
+                classLoader: classLoader,
+                marker: classLoader.getResource("marker.txt").text,
+                classPath: System.getProperty("java.class.path")
+            ]
+            System.setProperty("test.property", "changed")
+        }
+
+        @Override
+        void stop() {
+        }
+
+        @Override
+        void stopNow() {
+        }
+    }
 }
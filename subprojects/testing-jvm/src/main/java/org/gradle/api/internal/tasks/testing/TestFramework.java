@@ -44,4 +44,11 @@ public interface TestFramework {
      * executed before starting each worker process.
      */
     Action<WorkerProcessBuilder> getWorkerConfigurationAction();
+
+    /**
+     * Returns true if the test class processor created by {@link #getProcessorFactory()} executes each test class as soon as it is
+     * received, rather than when processing is stopped. In that case, test classes can be handed to whichever worker process becomes
+     * idle first.
+     */
+    boolean isExecutingTestClassesEagerly();
 }
@@ -29,6 +29,7 @@ import org.objectweb.asm.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -52,6 +53,7 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
 
     private Set<File> testClassesDirectories;
     private Set<File> testClasspath;
+    private TestClassAnalysisCache classAnalysisCache;
 
     protected AbstractTestFrameworkDetector(ClassFileExtractionManager classFileExtractionManager) {
         assert classFileExtractionManager != null;
@@ -117,7 +119,32 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
         this.testClasspath = testClasspath;
     }
 
-    private TestClass readClassFile(File testClassFile, Factory<String> fallbackClassNameProvider) {
+    @Override
+    public void setClassAnalysisCache(@Nullable TestClassAnalysisCache classAnalysisCache) {
+        this.classAnalysisCache = classAnalysisCache;
+    }
+
+    private TestClassAnalysis readClassFile(File testClassFile, Factory<String> fallbackClassNameProvider) {
+        TestClassAnalysis testClass = analyzeClassFile(testClassFile);
+        if (testClass.getClassName() == null) {
+            return TestClassAnalysis.forUnparseableFile(fallbackClassNameProvider.create());
+        }
+        return testClass;
+    }
+
+    private TestClassAnalysis analyzeClassFile(final File testClassFile) {
+        if (classAnalysisCache == null) {
+            return parseClassFile(testClassFile);
+        }
+        return classAnalysisCache.get(testClassFile, getClass(), new Factory<TestClassAnalysis>() {
+            @Override
+            public TestClassAnalysis create() {
+                return parseClassFile(testClassFile);
+            }
+        });
+    }
+
+    private TestClassAnalysis parseClassFile(File testClassFile) {
         final TestClassVisitor classVisitor = createClassVisitor();
 
         InputStream classStream = null;
@@ -125,15 +152,22 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
             classStream = new BufferedInputStream(new FileInputStream(testClassFile));
             final ClassReader classReader = new ClassReader(IOUtils.toByteArray(classStream));
             classReader.accept(classVisitor, ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
-            return TestClass.forParseableFile(classVisitor);
+            return TestClassAnalysis.forParseableFile(classVisitor);
         } catch (Throwable e) {
             LOGGER.debug("Failed to read class file " + testClassFile.getAbsolutePath() + "; assuming it's a test class and continuing", e);
-            return TestClass.forUnparseableFile(fallbackClassNameProvider.create());
+            return TestClassAnalysis.forUnparseableFile();
         } finally {
             IoActions.closeQuietly(classStream);
         }
     }
 
+    @Override
+    public void analyzeTestClass(RelativeFile testClassFile) {
+        if (classAnalysisCache != null) {
+            analyzeClassFile(testClassFile.getFile());
+        }
+    }
+
     @Override
     public boolean processTestClass(final RelativeFile testClassFile) {
         return processTestClass(testClassFile.getFile(), false, new Factory<String>() {
@@ -150,7 +184,7 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
      * parent class is a test class all the extending classes are marked as test classes.
      */
     private boolean processTestClass(File testClassFile, boolean superClass, Factory<String> fallbackClassNameProvider) {
-        TestClass testClass = readClassFile(testClassFile, fallbackClassNameProvider);
+        TestClassAnalysis testClass = readClassFile(testClassFile, fallbackClassNameProvider);
 
         boolean isTest = testClass.isTest();
 
@@ -198,7 +232,7 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
      * In none super class mode a test class is published when the class is a test and it is not abstract. In super class mode it must not publish the class otherwise it will get published multiple
      * times (for each extending class).
      */
-    private void publishTestClass(boolean isTest, TestClass testClass, boolean superClass) {
+    private void publishTestClass(boolean isTest, TestClassAnalysis testClass, boolean superClass) {
         if (isTest && !testClass.isAbstract() && !superClass) {
             String className = Type.getObjectType(testClass.getClassName()).getClassName();
             testClassProcessor.processTestClass(new DefaultTestClassRunInfo(className));
@@ -209,43 +243,4 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
     public void startDetection(TestClassProcessor testClassProcessor) {
         this.testClassProcessor = testClassProcessor;
     }
-
-    private static class TestClass {
-        private final boolean test;
-        private final boolean isAbstract;
-        private final String className;
-        private final String superClassName;
-
-        static TestClass forParseableFile(TestClassVisitor testClassVisitor) {
-            return new TestClass(testClassVisitor.isTest(), testClassVisitor.isAbstract(), testClassVisitor.getClassName(), testClassVisitor.getSuperClassName());
-        }
-
-        static TestClass forUnparseableFile(String className) {
-            return new TestClass(true, false, className, null);
-        }
-
-        private TestClass(boolean test, boolean isAbstract, String className, String superClassName) {
-            this.test = test;
-            this.isAbstract = isAbstract;
-            this.className = className;
-            this.superClassName = superClassName;
-        }
-
-        boolean isTest() {
-            return test;
-        }
-
-        boolean isAbstract() {
-            return isAbstract;
-        }
-
-        String getClassName() {
-            return className;
-        }
-
-        String getSuperClassName() {
-            return superClassName;
-        }
-    }
-
 }
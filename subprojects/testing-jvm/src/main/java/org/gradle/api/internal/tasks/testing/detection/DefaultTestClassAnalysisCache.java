@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.detection;
+
+import org.gradle.cache.CacheRepository;
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.PersistentCache;
+import org.gradle.cache.PersistentIndexedCacheParameters;
+import org.gradle.cache.internal.InMemoryCacheDecoratorFactory;
+import org.gradle.cache.internal.MinimalPersistentCache;
+import org.gradle.internal.Factory;
+import org.gradle.internal.hash.FileHasher;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.serialize.HashCodeSerializer;
+
+import java.io.Closeable;
+import java.io.File;
+
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
+
+public class DefaultTestClassAnalysisCache implements TestClassAnalysisCache, Closeable {
+    private final FileHasher fileHasher;
+    private final PersistentCache cache;
+    private final MinimalPersistentCache<HashCode, TestClassAnalysis> analysisCache;
+
+    public DefaultTestClassAnalysisCache(FileHasher fileHasher, CacheRepository cacheRepository, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
+        this.fileHasher = fileHasher;
+        cache = cacheRepository
+            .cache("testClassDetection")
+            .withDisplayName("Test class detection cache")
+            .withLockOptions(mode(FileLockManager.LockMode.None)) // Lock on demand
+            .open();
+        PersistentIndexedCacheParameters<HashCode, TestClassAnalysis> parameters = PersistentIndexedCacheParameters.of("testClassAnalysis", new HashCodeSerializer(), new TestClassAnalysis.Serializer())
+            .withCacheDecorator(inMemoryCacheDecoratorFactory.decorator(400000, true));
+        analysisCache = new MinimalPersistentCache<HashCode, TestClassAnalysis>(cache.createCache(parameters));
+    }
+
+    @Override
+    public TestClassAnalysis get(File classFile, Class<? extends TestFrameworkDetector> detectorType, Factory<TestClassAnalysis> factory) {
+        Hasher hasher = Hashing.newHasher();
+        hasher.putString(detectorType.getName());
+        hasher.putHash(fileHasher.hash(classFile));
+        return analysisCache.get(hasher.hash(), factory);
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
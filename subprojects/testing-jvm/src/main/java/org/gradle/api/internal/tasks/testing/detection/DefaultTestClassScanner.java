@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.tasks.testing.detection;
 
+import org.gradle.api.Action;
 import org.gradle.api.file.EmptyFileVisitor;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.file.FileVisitDetails;
@@ -23,7 +24,15 @@ import org.gradle.api.internal.file.RelativeFile;
 import org.gradle.api.internal.tasks.testing.DefaultTestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -32,15 +41,26 @@ import java.util.regex.Pattern;
  */
 public class DefaultTestClassScanner implements Runnable {
     private static final Pattern ANONYMOUS_CLASS_NAME = Pattern.compile(".*\\$\\d+");
+    private static final int ANALYSIS_BATCH_SIZE = 500;
     private final FileTree candidateClassFiles;
     private final TestFrameworkDetector testFrameworkDetector;
     private final TestClassProcessor testClassProcessor;
+    private final BuildOperationExecutor buildOperationExecutor;
 
     public DefaultTestClassScanner(FileTree candidateClassFiles, TestFrameworkDetector testFrameworkDetector,
                                    TestClassProcessor testClassProcessor) {
+        this(candidateClassFiles, testFrameworkDetector, testClassProcessor, null);
+    }
+
+    /**
+     * When a build operation executor is given, the candidate class files are analyzed in parallel before detection starts.
+     */
+    public DefaultTestClassScanner(FileTree candidateClassFiles, TestFrameworkDetector testFrameworkDetector,
+                                   TestClassProcessor testClassProcessor, @Nullable BuildOperationExecutor buildOperationExecutor) {
         this.candidateClassFiles = candidateClassFiles;
         this.testFrameworkDetector = testFrameworkDetector;
         this.testClassProcessor = testClassProcessor;
+        this.buildOperationExecutor = buildOperationExecutor;
     }
 
     @Override
@@ -54,9 +74,35 @@ public class DefaultTestClassScanner implements Runnable {
 
     private void detectionScan() {
         testFrameworkDetector.startDetection(testClassProcessor);
+        if (buildOperationExecutor == null) {
+            candidateClassFiles.visit(new ClassFileVisitor() {
+                public void visitClassFile(FileVisitDetails fileDetails) {
+                    testFrameworkDetector.processTestClass(new RelativeFile(fileDetails.getFile(), fileDetails.getRelativePath()));
+                }
+            });
+            return;
+        }
+
+        final List<RelativeFile> testClassFiles = new ArrayList<RelativeFile>();
         candidateClassFiles.visit(new ClassFileVisitor() {
             public void visitClassFile(FileVisitDetails fileDetails) {
-                testFrameworkDetector.processTestClass(new RelativeFile(fileDetails.getFile(), fileDetails.getRelativePath()));
+                testClassFiles.add(new RelativeFile(fileDetails.getFile(), fileDetails.getRelativePath()));
+            }
+        });
+        analyzeInParallel(testClassFiles);
+        for (RelativeFile testClassFile : testClassFiles) {
+            testFrameworkDetector.processTestClass(testClassFile);
+        }
+    }
+
+    private void analyzeInParallel(final List<RelativeFile> testClassFiles) {
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+            @Override
+            public void execute(BuildOperationQueue<RunnableBuildOperation> buildOperationQueue) {
+                for (int start = 0; start < testClassFiles.size(); start += ANALYSIS_BATCH_SIZE) {
+                    int end = Math.min(start + ANALYSIS_BATCH_SIZE, testClassFiles.size());
+                    buildOperationQueue.add(new AnalyzeTestClassesOperation(testClassFiles.subList(start, end)));
+                }
             }
         });
     }
@@ -89,6 +135,26 @@ public class DefaultTestClassScanner implements Runnable {
         }
     }
 
+    private class AnalyzeTestClassesOperation implements RunnableBuildOperation {
+        private final List<RelativeFile> testClassFiles;
+
+        AnalyzeTestClassesOperation(List<RelativeFile> testClassFiles) {
+            this.testClassFiles = testClassFiles;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            for (RelativeFile testClassFile : testClassFiles) {
+                testFrameworkDetector.analyzeTestClass(testClassFile);
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Analyze " + testClassFiles.size() + " test class files");
+        }
+    }
+
     private String getClassName(FileVisitDetails fileDetails) {
         return fileDetails.getRelativePath().getPathString().replaceAll("\\.class", "").replace('/', '.');
     }
@@ -30,9 +30,11 @@ import org.gradle.api.internal.tasks.testing.filter.DefaultTestFilter;
 import org.gradle.api.internal.tasks.testing.processors.MaxNParallelTestClassProcessor;
 import org.gradle.api.internal.tasks.testing.processors.PatternMatchTestClassProcessor;
 import org.gradle.api.internal.tasks.testing.processors.RestartEveryNTestClassProcessor;
+import org.gradle.api.internal.tasks.testing.processors.RunLongestFirstTestClassProcessor;
 import org.gradle.api.internal.tasks.testing.processors.RunPreviousFailedFirstTestClassProcessor;
 import org.gradle.api.internal.tasks.testing.processors.TestMainAction;
 import org.gradle.api.internal.tasks.testing.worker.ForkingTestClassProcessor;
+import org.gradle.api.internal.tasks.testing.worker.TestWorkerProcessPool;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.internal.Factory;
@@ -61,11 +63,14 @@ public class DefaultTestExecuter implements TestExecuter<JvmTestExecutionSpec> {
     private final Clock clock;
     private final DocumentationRegistry documentationRegistry;
     private final DefaultTestFilter testFilter;
+    private final TestWorkerProcessPool workerProcessPool;
+    private final TestClassAnalysisCache testClassAnalysisCache;
     private TestClassProcessor processor;
 
     public DefaultTestExecuter(WorkerProcessFactory workerFactory, ActorFactory actorFactory, ModuleRegistry moduleRegistry,
                                WorkerLeaseRegistry workerLeaseRegistry, BuildOperationExecutor buildOperationExecutor, int maxWorkerCount,
-                               Clock clock, DocumentationRegistry documentationRegistry, DefaultTestFilter testFilter) {
+                               Clock clock, DocumentationRegistry documentationRegistry, DefaultTestFilter testFilter, TestWorkerProcessPool workerProcessPool,
+                               TestClassAnalysisCache testClassAnalysisCache) {
         this.workerFactory = workerFactory;
         this.actorFactory = actorFactory;
         this.moduleRegistry = moduleRegistry;
@@ -75,6 +80,8 @@ public class DefaultTestExecuter implements TestExecuter<JvmTestExecutionSpec> {
         this.clock = clock;
         this.documentationRegistry = documentationRegistry;
         this.testFilter = testFilter;
+        this.workerProcessPool = workerProcessPool;
+        this.testClassAnalysisCache = testClassAnalysisCache;
     }
 
     @Override
@@ -83,10 +90,14 @@ public class DefaultTestExecuter implements TestExecuter<JvmTestExecutionSpec> {
         final WorkerTestClassProcessorFactory testInstanceFactory = testFramework.getProcessorFactory();
         final WorkerLeaseRegistry.WorkerLease currentWorkerLease = workerLeaseRegistry.getCurrentWorkerLease();
         final Set<File> classpath = ImmutableSet.copyOf(testExecutionSpec.getClasspath());
+        final int maxParallelForks = getMaxParallelForks(testExecutionSpec);
+        // Let idle workers request their next test class, so that a worker busy with a slow test class does not hold on to a queue of others
+        final boolean workStealing = maxParallelForks > 1 && testFramework.isExecutingTestClassesEagerly();
+        final TestWorkerProcessPool reusableWorkerProcesses = workerProcessPool.isEnabled() ? workerProcessPool : null;
         final Factory<TestClassProcessor> forkingProcessorFactory = new Factory<TestClassProcessor>() {
             public TestClassProcessor create() {
                 return new ForkingTestClassProcessor(currentWorkerLease, workerFactory, testInstanceFactory, testExecutionSpec.getJavaForkOptions(),
-                    classpath, testFramework.getWorkerConfigurationAction(), moduleRegistry, documentationRegistry);
+                    classpath, testFramework.getWorkerConfigurationAction(), moduleRegistry, documentationRegistry, workStealing, reusableWorkerProcesses);
             }
         };
         final Factory<TestClassProcessor> reforkingProcessorFactory = new Factory<TestClassProcessor>() {
@@ -96,8 +107,9 @@ public class DefaultTestExecuter implements TestExecuter<JvmTestExecutionSpec> {
         };
         processor =
             new PatternMatchTestClassProcessor(testFilter,
-                new RunPreviousFailedFirstTestClassProcessor(testExecutionSpec.getPreviousFailedTestClasses(),
-                    new MaxNParallelTestClassProcessor(getMaxParallelForks(testExecutionSpec), reforkingProcessorFactory, actorFactory)));
+                new RunLongestFirstTestClassProcessor(testExecutionSpec.getPreviousTestClassDurations(),
+                    new RunPreviousFailedFirstTestClassProcessor(testExecutionSpec.getPreviousFailedTestClasses(),
+                        new MaxNParallelTestClassProcessor(maxParallelForks, reforkingProcessorFactory, actorFactory, workStealing))));
 
         final FileTree testClassFiles = testExecutionSpec.getCandidateClassFiles();
 
@@ -106,7 +118,8 @@ public class DefaultTestExecuter implements TestExecuter<JvmTestExecutionSpec> {
             TestFrameworkDetector testFrameworkDetector = testFramework.getDetector();
             testFrameworkDetector.setTestClasses(testExecutionSpec.getTestClassesDirs().getFiles());
             testFrameworkDetector.setTestClasspath(classpath);
-            detector = new DefaultTestClassScanner(testClassFiles, testFrameworkDetector, processor);
+            testFrameworkDetector.setClassAnalysisCache(testClassAnalysisCache);
+            detector = new DefaultTestClassScanner(testClassFiles, testFrameworkDetector, processor, buildOperationExecutor);
         } else {
             detector = new DefaultTestClassScanner(testClassFiles, null, processor);
         }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.detection;
+
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+
+import javax.annotation.Nullable;
+
+/**
+ * What a test framework detector found out about a single class file.
+ */
+public class TestClassAnalysis {
+    private static final TestClassAnalysis UNPARSEABLE = new TestClassAnalysis(true, false, null, null);
+
+    private final boolean test;
+    private final boolean isAbstract;
+    private final String className;
+    private final String superClassName;
+
+    public static TestClassAnalysis forParseableFile(TestClassVisitor testClassVisitor) {
+        return new TestClassAnalysis(testClassVisitor.isTest(), testClassVisitor.isAbstract(), testClassVisitor.getClassName(), testClassVisitor.getSuperClassName());
+    }
+
+    /**
+     * Returns the analysis for a class file that could not be read. It is assumed to be a test class, whose name is not known.
+     */
+    public static TestClassAnalysis forUnparseableFile() {
+        return UNPARSEABLE;
+    }
+
+    public static TestClassAnalysis forUnparseableFile(String className) {
+        return new TestClassAnalysis(true, false, className, null);
+    }
+
+    private TestClassAnalysis(boolean test, boolean isAbstract, @Nullable String className, @Nullable String superClassName) {
+        this.test = test;
+        this.isAbstract = isAbstract;
+        this.className = className;
+        this.superClassName = superClassName;
+    }
+
+    public boolean isTest() {
+        return test;
+    }
+
+    public boolean isAbstract() {
+        return isAbstract;
+    }
+
+    /**
+     * Returns the internal name of the class, or null when the class file could not be read.
+     */
+    @Nullable
+    public String getClassName() {
+        return className;
+    }
+
+    @Nullable
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public static class Serializer extends AbstractSerializer<TestClassAnalysis> {
+        @Override
+        public TestClassAnalysis read(Decoder decoder) throws Exception {
+            boolean test = decoder.readBoolean();
+            boolean isAbstract = decoder.readBoolean();
+            String className = decoder.readNullableString();
+            String superClassName = decoder.readNullableString();
+            return new TestClassAnalysis(test, isAbstract, className, superClassName);
+        }
+
+        @Override
+        public void write(Encoder encoder, TestClassAnalysis value) throws Exception {
+            encoder.writeBoolean(value.test);
+            encoder.writeBoolean(value.isAbstract);
+            encoder.writeNullableString(value.className);
+            encoder.writeNullableString(value.superClassName);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.detection;
+
+import org.gradle.internal.Factory;
+
+import java.io.File;
+
+/**
+ * Caches the analysis of test class files by their content, so that unchanged class files are not parsed again by later test runs.
+ */
+public interface TestClassAnalysisCache {
+    /**
+     * Returns the analysis of the given class file by the given type of detector, using the factory to create it when the content of the class file has not been analyzed before.
+     */
+    TestClassAnalysis get(File classFile, Class<? extends TestFrameworkDetector> detectorType, Factory<TestClassAnalysis> factory);
+}
@@ -18,6 +18,7 @@ package org.gradle.api.internal.tasks.testing.detection;
 import org.gradle.api.internal.file.RelativeFile;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Set;
 
@@ -26,7 +27,14 @@ public interface TestFrameworkDetector {
 
     boolean processTestClass(RelativeFile testClassFile);
 
+    /**
+     * Analyzes the given class file ahead of {@link #processTestClass(RelativeFile)}, so that processing can use the cached analysis. May be called concurrently.
+     */
+    void analyzeTestClass(RelativeFile testClassFile);
+
     void setTestClasses(Set<File> testClasses);
 
     void setTestClasspath(Set<File> classpath);
+
+    void setClassAnalysisCache(@Nullable TestClassAnalysisCache classAnalysisCache);
 }
@@ -64,6 +64,11 @@ public class JUnitPlatformTestFramework implements TestFramework {
         };
     }
 
+    @Override
+    public boolean isExecutingTestClassesEagerly() {
+        return false;
+    }
+
     @Override
     public JUnitPlatformOptions getOptions() {
         return options;
@@ -16,6 +16,10 @@
 
 package org.gradle.jvm.test.internal.services;
 
+import org.gradle.api.internal.tasks.testing.detection.DefaultTestClassAnalysisCache;
+import org.gradle.cache.CacheRepository;
+import org.gradle.cache.internal.InMemoryCacheDecoratorFactory;
+import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.scopes.AbstractPluginServiceRegistry;
 import org.gradle.jvm.test.internal.JUnitTestSuiteBinaryRenderer;
@@ -25,4 +29,15 @@ public class JvmTestingServices extends AbstractPluginServiceRegistry {
     public void registerGlobalServices(ServiceRegistration registration) {
         registration.add(JUnitTestSuiteBinaryRenderer.class);
     }
+
+    @Override
+    public void registerGradleUserHomeServices(ServiceRegistration registration) {
+        registration.addProvider(new UserHomeScopeServices());
+    }
+
+    private static class UserHomeScopeServices {
+        DefaultTestClassAnalysisCache createTestClassAnalysisCache(FileHasher fileHasher, CacheRepository cacheRepository, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
+            return new DefaultTestClassAnalysisCache(fileHasher, cacheRepository, inMemoryCacheDecoratorFactory);
+        }
+    }
 }
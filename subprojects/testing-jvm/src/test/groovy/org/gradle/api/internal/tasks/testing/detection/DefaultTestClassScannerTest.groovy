@@ -16,12 +16,16 @@
 
 package org.gradle.api.internal.tasks.testing.detection
 
+import org.gradle.api.Action
 import org.gradle.api.file.FileTree
 import org.gradle.api.file.FileVisitDetails
 import org.gradle.api.file.FileVisitor
 import org.gradle.api.file.RelativePath
 import org.gradle.api.internal.file.DefaultFileVisitDetails
 import org.gradle.api.internal.tasks.testing.TestClassProcessor
+import org.gradle.internal.operations.BuildOperationExecutor
+import org.gradle.internal.operations.BuildOperationQueue
+import org.gradle.internal.operations.RunnableBuildOperation
 import org.junit.Test
 import spock.lang.Specification
 import spock.lang.Subject
@@ -78,6 +82,39 @@ class DefaultTestClassScannerTest extends Specification {
         0 * _._
     }
 
+    @Test
+    void analyzesClassFilesInParallelBeforeDetection() {
+        given:
+        def class1 = stubFileVisitDetails('class1')
+        def class2 = stubFileVisitDetails('class2')
+        def buildOperationExecutor = Mock(BuildOperationExecutor)
+        def queue = Mock(BuildOperationQueue)
+        def parallelScanner = new DefaultTestClassScanner(files, detector, processor, buildOperationExecutor)
+
+        when:
+        parallelScanner.run()
+
+        then:
+        1 * detector.startDetection(processor)
+        then:
+        1 * files.visit(_) >> { args ->
+            FileVisitor visitor = args[0]
+            visitor.visitFile(class1)
+            visitor.visitFile(class2)
+        }
+        then:
+        1 * buildOperationExecutor.runAll(_) >> { Action action -> action.execute(queue) }
+        1 * queue.add(_) >> { RunnableBuildOperation operation -> operation.run(null) }
+        1 * detector.analyzeTestClass({ it.file.is(class1.file) })
+        1 * detector.analyzeTestClass({ it.file.is(class2.file) })
+        then:
+        1 * detector.processTestClass({ it.file.is(class1.file) })
+        then:
+        1 * detector.processTestClass({ it.file.is(class2.file) })
+
+        0 * _._
+    }
+
     FileVisitDetails stubFileVisitDetails(String className) {
         return new DefaultFileVisitDetails(new File("${className}.class"), new RelativePath(false, "${className}.class"), null, null, null)
     }
@@ -32,15 +32,18 @@ public class DaemonForkOptions {
     private final Iterable<String> sharedPackages;
     private final KeepAliveMode keepAliveMode;
     private final ClassLoaderStructure classLoaderStructure;
+    // Not part of compatibility, only used to prefer daemons that have recently worked with the same files
+    private final Iterable<File> affinityClasspath;
 
     DaemonForkOptions(JavaForkOptionsInternal forkOptions, Iterable<File> classpath,
                       Iterable<String> sharedPackages, KeepAliveMode keepAliveMode,
-                      ClassLoaderStructure classLoaderStructure) {
+                      ClassLoaderStructure classLoaderStructure, Iterable<File> affinityClasspath) {
         this.forkOptions = forkOptions;
         this.classpath = classpath;
         this.sharedPackages = sharedPackages;
         this.keepAliveMode = keepAliveMode;
         this.classLoaderStructure = classLoaderStructure;
+        this.affinityClasspath = affinityClasspath;
     }
 
     public Iterable<File> getClasspath() {
@@ -63,6 +66,13 @@ public class DaemonForkOptions {
         return classLoaderStructure;
     }
 
+    /**
+     * The files the work will use, for example the compile classpath of a compiler. Daemons that last ran work with an overlapping set of files are preferred.
+     */
+    public Iterable<File> getAffinityClasspath() {
+        return affinityClasspath;
+    }
+
     public boolean isCompatibleWith(DaemonForkOptions other) {
         return forkOptions.isCompatibleWith(other.forkOptions)
                 && getNormalizedClasspath(classpath).containsAll(getNormalizedClasspath(other.getClasspath()))
@@ -86,7 +96,7 @@ public class DaemonForkOptions {
         Set<String> mergedAllowedPackages = getNormalizedSharedPackages(sharedPackages);
         mergedAllowedPackages.addAll(getNormalizedSharedPackages(other.sharedPackages));
 
-        return new DaemonForkOptions(forkOptions.mergeWith(other.forkOptions), mergedClasspath, mergedAllowedPackages, keepAliveMode, classLoaderStructure);
+        return new DaemonForkOptions(forkOptions.mergeWith(other.forkOptions), mergedClasspath, mergedAllowedPackages, keepAliveMode, classLoaderStructure, affinityClasspath);
     }
 
     private Set<File> getNormalizedClasspath(Iterable<File> classpath) {
@@ -31,6 +31,7 @@ public class DaemonForkOptionsBuilder {
     private Iterable<String> sharedPackages = Collections.emptyList();
     private KeepAliveMode keepAliveMode = KeepAliveMode.DAEMON;
     private ClassLoaderStructure classLoaderStructure = null;
+    private Iterable<File> affinityClasspath = Collections.emptyList();
 
     public DaemonForkOptionsBuilder(JavaForkOptionsFactory forkOptionsFactory) {
         this.forkOptionsFactory = forkOptionsFactory;
@@ -62,8 +63,13 @@ public class DaemonForkOptionsBuilder {
         return this;
     }
 
+    public DaemonForkOptionsBuilder affinityClasspath(Iterable<File> affinityClasspath) {
+        this.affinityClasspath = affinityClasspath;
+        return this;
+    }
+
     public DaemonForkOptions build() {
-        return new DaemonForkOptions(buildJavaForkOptions(), classpath, sharedPackages, keepAliveMode, classLoaderStructure);
+        return new DaemonForkOptions(buildJavaForkOptions(), classpath, sharedPackages, keepAliveMode, classLoaderStructure, affinityClasspath);
     }
 
     private JavaForkOptionsInternal buildJavaForkOptions() {
@@ -16,12 +16,17 @@
 
 package org.gradle.workers.internal;
 
+import com.google.common.collect.Sets;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.operations.BuildOperationRef;
 import org.gradle.process.internal.health.memory.JvmMemoryStatus;
 import org.gradle.process.internal.worker.WorkerProcess;
 
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+
 class WorkerDaemonClient implements Worker, Stoppable {
     public static final String DISABLE_EXPIRATION_PROPERTY_KEY = "org.gradle.workers.internal.disable-daemons-expiration";
     private final DaemonForkOptions forkOptions;
@@ -29,6 +34,8 @@ class WorkerDaemonClient implements Worker, Stoppable {
     private final WorkerProcess workerProcess;
     private final LogLevel logLevel;
     private int uses;
+    private int warmReservations;
+    private Set<File> lastAffinityClasspath = Collections.emptySet();
     private boolean failed;
     private boolean cannotBeExpired = Boolean.getBoolean(DISABLE_EXPIRATION_PROPERTY_KEY);
 
@@ -54,6 +61,28 @@ class WorkerDaemonClient implements Worker, Stoppable {
         return forkOptions.isCompatibleWith(required);
     }
 
+    /**
+     * Returns how many of the given files were used by the work this daemon last ran.
+     */
+    public int getAffinityOverlap(Set<File> affinityClasspath) {
+        if (affinityClasspath.isEmpty() || lastAffinityClasspath.isEmpty()) {
+            return 0;
+        }
+        return Sets.intersection(lastAffinityClasspath, affinityClasspath).size();
+    }
+
+    /**
+     * Records that this daemon has been reserved for work using the given files.
+     */
+    public void reserveFor(Set<File> affinityClasspath) {
+        if (getAffinityOverlap(affinityClasspath) > 0) {
+            warmReservations++;
+        }
+        if (!affinityClasspath.isEmpty()) {
+            lastAffinityClasspath = affinityClasspath;
+        }
+    }
+
     JvmMemoryStatus getJvmMemoryStatus() {
         return workerProcess.getJvmMemoryStatus();
     }
@@ -71,6 +100,13 @@ class WorkerDaemonClient implements Worker, Stoppable {
         return uses;
     }
 
+    /**
+     * The number of times this daemon was reserved for work sharing files with the work it ran before.
+     */
+    public int getWarmReservations() {
+        return warmReservations;
+    }
+
     public KeepAliveMode getKeepAliveMode() {
         return forkOptions.getKeepAliveMode();
     }
@@ -100,6 +136,7 @@ class WorkerDaemonClient implements Worker, Stoppable {
         return "WorkerDaemonClient{" +
                 " log level=" + logLevel +
                 ", use count=" + uses +
+                ", warm reservations=" + warmReservations +
                 ", has failed=" + failed +
                 ", can be expired=" + !cannotBeExpired +
                 ", workerProcess=" + workerProcess +
@@ -17,6 +17,7 @@
 package org.gradle.workers.internal;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.gradle.api.Action;
 import org.gradle.api.Transformer;
 import org.gradle.api.logging.LogLevel;
@@ -37,10 +38,12 @@ import org.gradle.process.internal.health.memory.OsMemoryInfo;
 import org.gradle.process.internal.worker.WorkerProcess;
 import org.gradle.util.CollectionUtils;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 public class WorkerDaemonClientsManager implements Stoppable {
 
@@ -82,22 +85,37 @@ public class WorkerDaemonClientsManager implements Stoppable {
     }
 
     WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions, List<WorkerDaemonClient> clients) {
+        Set<File> affinityClasspath = Sets.newHashSet(forkOptions.getAffinityClasspath());
         synchronized (lock) {
+            // Prefer the compatible daemon whose last work shared the most files with this work, as its JIT and caches are warm for them
+            WorkerDaemonClient selected = null;
+            int selectedOverlap = -1;
             Iterator<WorkerDaemonClient> it = clients.iterator();
             while (it.hasNext()) {
                 WorkerDaemonClient candidate = it.next();
                 if (candidate.isCompatibleWith(forkOptions)) {
-                    it.remove();
                     if (candidate.getLogLevel() != currentLogLevel) {
+                        it.remove();
                         // TODO: Send a message to workers to change their log level rather than stopping
                         LOGGER.info("Log level has changed, stopping idle worker daemon with out-of-date log level.");
                         candidate.stop();
-                    } else {
-                        return candidate;
+                        continue;
+                    }
+                    int overlap = candidate.getAffinityOverlap(affinityClasspath);
+                    if (overlap > selectedOverlap) {
+                        selected = candidate;
+                        selectedOverlap = overlap;
+                        if (overlap == affinityClasspath.size()) {
+                            break;
+                        }
                     }
                 }
             }
-            return null;
+            if (selected != null) {
+                clients.remove(selected);
+                selected.reserveFor(affinityClasspath);
+            }
+            return selected;
         }
     }
 
@@ -105,6 +123,7 @@ public class WorkerDaemonClientsManager implements Stoppable {
         //allow the daemon to be started concurrently
         WorkerDaemonClient client = workerDaemonStarter.startDaemon(workerProtocolImplementationClass, forkOptions, workerProcessCleanupAction);
         synchronized (lock) {
+            client.reserveFor(Sets.newHashSet(forkOptions.getAffinityClasspath()));
             allClients.add(client);
         }
         return client;
@@ -28,6 +28,7 @@ import org.gradle.internal.logging.events.OutputEventListener
 import org.gradle.process.internal.ExecException
 import org.gradle.process.internal.health.memory.MBeanOsMemoryInfo
 import org.gradle.process.internal.health.memory.MemoryManager
+import org.gradle.process.internal.worker.WorkerProcess
 import org.gradle.util.ConcurrentSpecification
 import spock.lang.Subject
 
@@ -68,6 +69,31 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         input == [noMatch] //match removed from input
     }
 
+    def "prefers idle client that last worked with overlapping classpath"() {
+        def shared = new File("shared.jar")
+        def cold = compatibleClient()
+        def warm = compatibleClient()
+        cold.reserveFor([new File("other.jar")] as Set)
+        warm.reserveFor([shared, new File("old.jar")] as Set)
+        def affinityOptions = Stub(DaemonForkOptions) { getAffinityClasspath() >> [shared, new File("new.jar")] }
+        def input = [cold, warm]
+
+        expect:
+        manager.reserveIdleClient(affinityOptions, input) == warm
+        input == [cold]
+        warm.warmReservations == 1
+        cold.warmReservations == 0
+    }
+
+    def "reserves first compatible idle client when no classpath is given"() {
+        def first = compatibleClient()
+        def second = compatibleClient()
+        second.reserveFor([new File("some.jar")] as Set)
+
+        expect:
+        manager.reserveIdleClient(options, [first, second]) == first
+    }
+
     def "reserves new client"() {
         def newClient = Stub(WorkerDaemonClient)
         starter.startDaemon(serverImpl.class, options, _) >> newClient
@@ -306,4 +332,9 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         then:
         1 * memoryManager.removeMemoryHolder(_) >> { args -> assert args[0] == workerDaemonExpiration }
     }
+
+    WorkerDaemonClient compatibleClient() {
+        def forkOptions = Stub(DaemonForkOptions) { isCompatibleWith(_) >> true }
+        return new WorkerDaemonClient(forkOptions, Stub(WorkerDaemonProcess), Stub(WorkerProcess), loggingManager.level)
+    }
 }